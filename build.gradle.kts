@@ -5,6 +5,8 @@ plugins {
     id("com.gradleup.shadow") version "8.3.0"
     // Apply the Run-Paper plugin for running Paper Minecraft servers
     id("xyz.jpenilla.run-paper") version "2.3.1"
+    // Apply the JMH plugin for the microbenchmarks in src/jmh
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 // Define project properties for versions and package name
@@ -17,6 +19,10 @@ val spiGuiVersion: String by project
 val vaultApiVersion: String by project
 val citizensApiVersion: String by project
 val protocolLibVersion: String by project
+val mockBukkitVersion: String by project
+val junitVersion: String by project
+val mockitoVersion: String by project
+val sqliteJdbcVersion: String by project
 val projectPackageName = "${project.group}.rebus"
 
 // Configure Java toolchain and compatibility settings
@@ -73,6 +79,33 @@ dependencies {
     implementation(files("libs/MineCoreLib-${mineCoreLibVersion}.jar"))
     // SQL caching
     implementation("com.github.ben-manes.caffeine:caffeine:${caffeineVersion}")
+
+    // Unit tests
+    testImplementation(platform("org.junit:junit-bom:${junitVersion}"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    testImplementation("org.mockbukkit.mockbukkit:mockbukkit-v1.21:${mockBukkitVersion}")
+    testImplementation("org.mockito:mockito-core:${mockitoVersion}")
+    testImplementation("org.xerial:sqlite-jdbc:${sqliteJdbcVersion}")
+
+    // Microbenchmarks, run against a mocked server
+    jmh("io.papermc.paper:paper-api:${paperApiVersion}")
+    jmh("org.mockbukkit.mockbukkit:mockbukkit-v1.21:${mockBukkitVersion}")
+}
+
+// The tests use the same APIs the plugin is compiled against
+configurations.testImplementation {
+    extendsFrom(configurations.compileOnly.get())
+}
+
+// Run the unit tests on the JUnit Platform
+tasks.test {
+    useJUnitPlatform()
+}
+
+// Configure the JMH microbenchmarks
+jmh {
+    jmhVersion.set(project.property("jmhVersion") as String)
 }
 
 // Disable the default JAR task
@@ -10,6 +10,7 @@ import io.github.tavstaldev.minecorelib.utils.ItemMetaSerializer;
 import io.github.tavstaldev.minecorelib.utils.VersionUtils;
 import io.github.tavstaldev.rebus.commands.CommandRebus;
 import io.github.tavstaldev.rebus.commands.CommandRebusAdmin;
+import io.github.tavstaldev.rebus.database.DatabaseExecutor;
 import io.github.tavstaldev.rebus.database.IDatabase;
 import io.github.tavstaldev.rebus.database.MySqlDatabase;
 import io.github.tavstaldev.rebus.database.SqlLiteDatabase;
@@ -20,6 +21,7 @@ import io.github.tavstaldev.rebus.managers.NpcManager;
 import io.github.tavstaldev.rebus.metrics.Metrics;
 import io.github.tavstaldev.rebus.models.NpcTrait;
 import io.github.tavstaldev.rebus.tasks.CacheCleanTask;
+import io.github.tavstaldev.rebus.tasks.CooldownPurgeTask;
 import io.github.tavstaldev.rebus.util.EconomyUtils;
 import net.citizensnpcs.api.CitizensAPI;
 import net.citizensnpcs.api.trait.TraitInfo;
@@ -41,6 +43,7 @@ public final class Rebus extends PluginBase {
     private ProtocolManager _protocolManager;
     private IDatabase _database;
     private CacheCleanTask cacheCleanTask; // Task for cleaning player caches.
+    private CooldownPurgeTask cooldownPurgeTask; // Task for deleting expired cooldowns.
 
     /**
      * Provides access to the plugin's logger.
@@ -209,6 +212,7 @@ public final class Rebus extends PluginBase {
         _npcManager = new NpcManager();
 
         // Initialize database based on configuration
+        DatabaseExecutor.start();
         String databaseType = config().storageType;
         if (databaseType == null) {
             databaseType = "sqlite";
@@ -226,6 +230,7 @@ public final class Rebus extends PluginBase {
         }
         _database.load();
         _database.checkSchema();
+        PlayerEventListener.preloadOnlinePlayers();
 
         // Register cache cleanup task.
         if (cacheCleanTask != null && !cacheCleanTask.isCancelled())
@@ -233,6 +238,9 @@ public final class Rebus extends PluginBase {
         cacheCleanTask = new CacheCleanTask(); // Runs every 5 minutes
         cacheCleanTask.runTaskTimer(this, 0, 5 * 60 * 20);
 
+        // Register expired cooldown purge task.
+        startPurgeTask();
+
         // Metrics
         try {
             @SuppressWarnings("unused") Metrics metrics = new Metrics(this, 27759);
@@ -265,6 +273,15 @@ public final class Rebus extends PluginBase {
      */
     @Override
     public void onDisable() {
+        // Finish the chest openings in progress, before the database stops accepting their cooldowns
+        if (_chestManager != null)
+            _chestManager.cancelAllOpenings();
+
+        // Wait for pending database work, then release the database
+        DatabaseExecutor.shutdown();
+        if (_database != null)
+            _database.unload();
+
         super.onDisable();
         _logger.info(String.format("%s has been successfully unloaded.", getProjectName()));
     }
@@ -282,11 +299,37 @@ public final class Rebus extends PluginBase {
         this._config.load();
         _logger.debug("Configuration reloaded.");
 
-        _database.unload();
-        _database.load();
-        _database.checkSchema();
+        // Reconnect on the database thread, so queued database work does not run against a closed connection.
+        // The server thread does not wait for it, the cooldowns are preloaded once the database is back.
+        DatabaseExecutor.callback(DatabaseExecutor.run(() -> {
+            _database.unload();
+            _database.load();
+            _database.checkSchema();
+        }), ignored -> {
+            PlayerEventListener.preloadOnlinePlayers();
+            startPurgeTask();
+        });
 
         // Reload chests
         _chestManager.load();
     }
-}
\ No newline at end of file
+
+    /**
+     * (Re)starts the task deleting expired cooldowns, using the interval and batch size from the configuration.
+     * The task is not started if the interval is not positive.
+     */
+    private void startPurgeTask() {
+        if (cooldownPurgeTask != null && !cooldownPurgeTask.isCancelled())
+            cooldownPurgeTask.cancel();
+        cooldownPurgeTask = null;
+
+        int interval = config().storagePurgeInterval;
+        if (interval <= 0)
+            return;
+
+        long period = interval * 60L * 20L;
+        cooldownPurgeTask = new CooldownPurgeTask(config().storagePurgeBatchSize);
+        // The first purge runs a minute after startup, so rows that expired while the server was down go early.
+        cooldownPurgeTask.runTaskTimer(this, 60L * 20L, period);
+    }
+}
@@ -17,10 +17,22 @@ public class RebusConfig extends ConfigurationBase {
     public boolean checkForUpdates, debug;
 
     public String storageType, storageContext, storageFilename, storageHost, storageDatabase, storageUsername, storagePassword, storageTablePrefix;
-    public int storagePort;
+    public int storagePort, storageWriteBatchSize, storageWriteFlushInterval, storagePurgeInterval, storagePurgeBatchSize;
+    public boolean storageCachePrepStmts, storageUseServerPrepStmts, storageRewriteBatchedStatements;
+    public int storagePrepStmtCacheSize, storagePrepStmtCacheSqlLimit;
+    public int storagePoolMaximumSize, storagePoolMinimumIdle, storagePoolMaxLifetime, storagePoolConnectionTimeout, storagePoolKeepaliveTime, storagePoolLeakDetectionThreshold;
+    public boolean storagePoolRegisterMbeans;
 
     public String npcName, npcSkin;
 
+    public int bulkOpenMaxAmount;
+
+    public boolean animationVirtualBlocks;
+    public int animationViewDistance;
+
+    public int effectsRadius, effectsParticleBudget;
+    public double effectsReducedMultiplier;
+
     public boolean guiFillEmptySlots;
     public Material guiPlaceholderMaterial, guiCloseMaterial;
     public int guiRows, guiCloseBtnSlot;
@@ -44,11 +56,41 @@ public class RebusConfig extends ConfigurationBase {
         storageUsername = resolveGet("storage.username", "root");
         storagePassword = resolveGet("storage.password", "ascent");
         storageTablePrefix = resolveGet("storage.tablePrefix", "rebus");
+        storageWriteBatchSize = resolveGet("storage.writeBehind.batchSize", 50);
+        storageWriteFlushInterval = resolveGet("storage.writeBehind.flushInterval", 5);
+        storagePurgeInterval = resolveGet("storage.purge.interval", 60); // In minutes, 0 disables the purge
+        storagePurgeBatchSize = resolveGet("storage.purge.batchSize", 1000);
+        storageCachePrepStmts = resolveGet("storage.statements.cachePrepStmts", true);
+        storagePrepStmtCacheSize = resolveGet("storage.statements.prepStmtCacheSize", 250);
+        storagePrepStmtCacheSqlLimit = resolveGet("storage.statements.prepStmtCacheSqlLimit", 2048);
+        storageUseServerPrepStmts = resolveGet("storage.statements.useServerPrepStmts", true);
+        storageRewriteBatchedStatements = resolveGet("storage.statements.rewriteBatchedStatements", true);
+        // Pool, times are in milliseconds
+        storagePoolMaximumSize = resolveGet("storage.pool.maximumPoolSize", 10);
+        storagePoolMinimumIdle = resolveGet("storage.pool.minimumIdle", 10);
+        storagePoolMaxLifetime = resolveGet("storage.pool.maxLifetime", 1800000); // Should be shorter than the wait_timeout of the server
+        storagePoolConnectionTimeout = resolveGet("storage.pool.connectionTimeout", 10000);
+        storagePoolKeepaliveTime = resolveGet("storage.pool.keepaliveTime", 0); // 0 disables keepalive
+        storagePoolLeakDetectionThreshold = resolveGet("storage.pool.leakDetectionThreshold", 0); // 0 disables leak detection
+        storagePoolRegisterMbeans = resolveGet("storage.pool.registerMbeans", true);
 
         // npc
         npcName = resolveGet("npc.name", "&bRebus");
         npcSkin = resolveGet("npc.skin", "eyJ0ZXh0dXJlcyI6eyJTS0lOIjp7InVybCI6Imh0dHA6Ly90ZXh0dXJlcy5taW5lY3JhZnQubmV0L3RleHR1cmUvZjgzOTMwZjcxYmYyNWRkMTNiMzY0ZmY3ZTBlODdlODhiODc1NmNiYmJmODIyNDEwZjQ3MDQ1ZWNmMTI3NjM5OSJ9fX0=");
 
+        // bulk open
+        bulkOpenMaxAmount = resolveGet("bulkOpen.maxAmount", 64);
+
+        // animation
+        animationVirtualBlocks = resolveGet("animation.virtualBlocks", false); // Show the chest with packets only, without placing a real block
+        animationViewDistance = resolveGet("animation.viewDistance", 48); // Virtual chests are only sent to players in range when placed, players arriving later do not see them
+
+        // effects
+        effectsRadius = resolveGet("effects.radius", 32);
+        effectsParticleBudget = resolveGet("effects.particleBudget", 2000); // Particles sent to all players in a single tick
+        Number reducedMultiplier = resolveGet("effects.reducedMultiplier", 0.25); // Share of the particles sent to players with reduced effects
+        effectsReducedMultiplier = reducedMultiplier.doubleValue();
+
         // gui
         guiFillEmptySlots = resolveGet("gui.fillEmptySlots", true);
         String material = resolveGet("gui.placeholderMaterial", "BLACK_STAINED_GLASS_PANE");
@@ -5,6 +5,7 @@ import io.github.tavstaldev.minecorelib.models.command.SubCommandData;
 import io.github.tavstaldev.minecorelib.utils.ChatUtils;
 import io.github.tavstaldev.rebus.Rebus;
 import io.github.tavstaldev.rebus.gui.MainGUI;
+import io.github.tavstaldev.rebus.models.RebusChest;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import org.bukkit.command.Command;
@@ -46,6 +47,16 @@ public class CommandRebus implements CommandExecutor {
                     "syntax", "",
                     "description", "Commands.Menu.Desc"
             )));
+            // EFFECTS subcommand
+            add(new SubCommandData("effects", "rebus.use", Map.of(
+                    "syntax", "",
+                    "description", "Commands.Effects.Desc"
+            )));
+            // OPEN subcommand
+            add(new SubCommandData("open", "rebus.bulkopen", Map.of(
+                    "syntax", "Commands.Open.Syntax",
+                    "description", "Commands.Open.Desc"
+            )));
         }
     };
 
@@ -117,6 +128,49 @@ public class CommandRebus implements CommandExecutor {
                     MainGUI.open(player);
                     return true;
                 }
+                case "effects": {
+                    var effects = Rebus.chestManager().getEffects();
+                    boolean reduced = !effects.hasReducedEffects(player);
+                    effects.setReducedEffects(player, reduced);
+                    Rebus.Instance.sendLocalizedMsg(player, reduced ? "Commands.Effects.Reduced" : "Commands.Effects.Full");
+                    return true;
+                }
+                case "open": {
+                    if (!player.hasPermission("rebus.bulkopen")) {
+                        Rebus.Instance.sendLocalizedMsg(player, "General.NoPermission");
+                        return true;
+                    }
+
+                    if (args.length < 2 || args.length > 3) {
+                        Rebus.Instance.sendLocalizedMsg(player, "Commands.InvalidArguments");
+                        return true;
+                    }
+
+                    RebusChest chest = Rebus.chestManager().getByKey(args[1]);
+                    if (chest == null) {
+                        Rebus.Instance.sendLocalizedMsg(player, "Chests.NotFound", Map.of("chest", args[1]));
+                        return true;
+                    }
+
+                    // Open every chest item of the player by default.
+                    int amount = Integer.MAX_VALUE;
+                    if (args.length == 3 && !args[2].equalsIgnoreCase("all")) {
+                        try {
+                            amount = Integer.parseInt(args[2]);
+                        } catch (NumberFormatException ex) {
+                            Rebus.Instance.sendLocalizedMsg(player, "Commands.InvalidArguments");
+                            return true;
+                        }
+
+                        if (amount < 1) {
+                            Rebus.Instance.sendLocalizedMsg(player, "Commands.InvalidArguments");
+                            return true;
+                        }
+                    }
+
+                    Rebus.chestManager().bulkOpen(player, chest, amount);
+                    return true;
+                }
             }
 
             // Invalid arguments
@@ -4,15 +4,19 @@ import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.minecorelib.models.command.SubCommandData;
 import io.github.tavstaldev.minecorelib.utils.ChatUtils;
 import io.github.tavstaldev.rebus.Rebus;
+import io.github.tavstaldev.rebus.database.PoolStats;
+import io.github.tavstaldev.rebus.models.ChestOdds;
 import io.github.tavstaldev.rebus.models.RebusChest;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
@@ -54,6 +58,16 @@ public class CommandRebusAdmin implements CommandExecutor {
                     "syntax", "Commands.Give.Syntax",
                     "description", "Commands.Give.Desc"
             )));
+            // POOL subcommand
+            add(new SubCommandData("pool", "rebus.pool", Map.of(
+                    "syntax", "",
+                    "description", "Commands.Pool.Desc"
+            )));
+            // ODDS subcommand
+            add(new SubCommandData("odds", "rebus.odds", Map.of(
+                    "syntax", "Commands.Odds.Syntax",
+                    "description", "Commands.Odds.Desc"
+            )));
         }
     };
 
@@ -160,13 +174,7 @@ public class CommandRebusAdmin implements CommandExecutor {
                         return true;
                     }
 
-                    RebusChest chest = null;
-                    for (RebusChest c : Rebus.chestManager().getChests()) {
-                        if (Objects.equals(c.getKey(), args[2])) {
-                            chest = c;
-                            break;
-                        }
-                    }
+                    RebusChest chest = Rebus.chestManager().getByKey(args[2]);
 
                     if (chest == null) {
                         Rebus.Instance.sendLocalizedMsg(player, "Chests.NotFound", Map.of("chest", args[2]));
@@ -184,6 +192,47 @@ public class CommandRebusAdmin implements CommandExecutor {
                     ));
                     return true;
                 }
+                case "pool": {
+                    if (!player.hasPermission("rebus.pool")) {
+                        Rebus.Instance.sendLocalizedMsg(player, "General.NoPermission");
+                        return true;
+                    }
+
+                    PoolStats stats = Rebus.database().getPoolStats();
+                    if (stats == null) {
+                        Rebus.Instance.sendLocalizedMsg(player, "Commands.Pool.Unavailable");
+                        return true;
+                    }
+
+                    Rebus.Instance.sendLocalizedMsg(player, "Commands.Pool.Stats", Map.of(
+                            "active", stats.active(),
+                            "idle", stats.idle(),
+                            "total", stats.total(),
+                            "pending", stats.pending(),
+                            "maximum", stats.maximum()
+                    ));
+                    return true;
+                }
+                case "odds": {
+                    if (!player.hasPermission("rebus.odds")) {
+                        Rebus.Instance.sendLocalizedMsg(player, "General.NoPermission");
+                        return true;
+                    }
+
+                    if (args.length != 2) {
+                        Rebus.Instance.sendLocalizedMsg(player, "Commands.InvalidArguments");
+                        return true;
+                    }
+
+                    RebusChest chest = Rebus.chestManager().getByKey(args[1]);
+                    if (chest == null) {
+                        Rebus.Instance.sendLocalizedMsg(player, "Chests.NotFound", Map.of("chest", args[1]));
+                        return true;
+                    }
+
+                    odds(player, chest);
+                    return true;
+                }
                 case "reset": {
                     if (!player.hasPermission("rebus.reset")) {
                         Rebus.Instance.sendLocalizedMsg(player, "General.NoPermission");
@@ -201,7 +250,7 @@ public class CommandRebusAdmin implements CommandExecutor {
                         return true;
                     }
 
-                    Rebus.database().removeAllCooldowns(target.getUniqueId());
+                    Rebus.database().removeAllCooldownsAsync(target.getUniqueId());
                     Rebus.Instance.sendLocalizedMsg(player, "General.ResetCooldowns", Map.of("player", target.getName()));
                     Rebus.Instance.sendLocalizedMsg(target, "General.YourCooldownsReset");
                     return true;
@@ -218,6 +267,65 @@ public class CommandRebusAdmin implements CommandExecutor {
         return true;
     }
 
+    /**
+     * Displays the odds of every reward bundle and item of a chest.
+     *
+     * @param player The player requesting the odds.
+     * @param chest  The chest whose odds are displayed.
+     */
+    private void odds(Player player, RebusChest chest) {
+        var odds = chest.getOdds();
+        Rebus.Instance.sendLocalizedMsg(player, "Commands.Odds.Title", Map.of("chest", chest.getName()));
+
+        // Bundles, numbered in the order they are defined in.
+        Rebus.Instance.sendLocalizedMsg(player, "Commands.Odds.Bundles");
+        int index = 1;
+        for (ChestOdds.BundleOdds bundle : odds.getBundles()) {
+            StringJoiner items = new StringJoiner(", ");
+            for (ItemStack item : bundle.reward().getItemStacks()) {
+                items.add(item.getAmount() + "x " + getItemName(item));
+            }
+            Rebus.Instance.sendLocalizedMsg(player, "Commands.Odds.Bundle", Map.of(
+                    "index", index++,
+                    "chance", formatPercent(bundle.probability()),
+                    "items", items.toString()
+            ));
+        }
+
+        // Items, with the bundles they are part of already combined.
+        Rebus.Instance.sendLocalizedMsg(player, "Commands.Odds.Items");
+        for (ChestOdds.ItemOdds item : odds.getItems()) {
+            Rebus.Instance.sendLocalizedMsg(player, "Commands.Odds.Item", Map.of(
+                    "item", getItemName(item.item()),
+                    "chance", formatPercent(item.probability()),
+                    "amount", String.format(Locale.ROOT, "%.2f", item.expectedAmount())
+            ));
+        }
+    }
+
+    /**
+     * Gets the name of an item, using its display name if it has one.
+     *
+     * @param item The item.
+     * @return The plain name of the item.
+     */
+    private String getItemName(ItemStack item) {
+        var meta = item.getItemMeta();
+        if (meta != null && meta.hasDisplayName() && meta.displayName() != null)
+            return PlainTextComponentSerializer.plainText().serialize(meta.displayName());
+        return item.getType().getKey().getKey();
+    }
+
+    /**
+     * Formats a probability as a percentage with two decimals.
+     *
+     * @param probability The probability between 0 and 1.
+     * @return The formatted percentage, without the percent sign.
+     */
+    private String formatPercent(double probability) {
+        return String.format(Locale.ROOT, "%.2f", probability * 100.0);
+    }
+
     /**
      * Displays the help menu for the "rebusadmin" command.
      *
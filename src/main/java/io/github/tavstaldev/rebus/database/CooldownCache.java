@@ -0,0 +1,98 @@
+package io.github.tavstaldev.rebus.database;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.tavstaldev.rebus.models.PlayerCooldowns;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-memory cache of player cooldowns shared by the database implementations.
+ * <p>
+ * Online players are pinned for their whole session, while cooldowns of other players
+ * (e.g. looked up by an admin) are kept for a few minutes only.
+ * All operations are safe to call from any thread.
+ * </p>
+ */
+public class CooldownCache {
+    // Cooldowns of online players, pinned from pre-login until they quit.
+    private final Map<UUID, PlayerCooldowns> _sessions = new ConcurrentHashMap<>();
+
+    // Cooldowns of players that are not pinned.
+    private final Cache<@NotNull UUID, PlayerCooldowns> _transient = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Retrieves the cached cooldowns of a player, preferring the pinned session entry.
+     *
+     * @param playerId The UUID of the player.
+     * @return The cooldowns of the player, or null if they are not cached.
+     */
+    public @Nullable PlayerCooldowns get(UUID playerId) {
+        var cooldowns = _sessions.get(playerId);
+        if (cooldowns != null)
+            return cooldowns;
+        return _transient.getIfPresent(playerId);
+    }
+
+    /**
+     * Retrieves the cooldowns of a player, loading and caching them if they are not cached yet.
+     *
+     * @param playerId The UUID of the player.
+     * @param loader   The function loading the cooldowns, may return null on failure.
+     * @return The cooldowns of the player, or null if they could not be loaded.
+     */
+    public @Nullable PlayerCooldowns getOrLoad(UUID playerId, Function<UUID, PlayerCooldowns> loader) {
+        var cooldowns = get(playerId);
+        if (cooldowns != null)
+            return cooldowns;
+
+        cooldowns = loader.apply(playerId);
+        if (cooldowns != null)
+            _transient.put(playerId, cooldowns);
+        return cooldowns;
+    }
+
+    /**
+     * Pins the cooldowns of a player until {@link #unpin(UUID)} is called, loading them if they are not cached yet.
+     *
+     * @param playerId The UUID of the player.
+     * @param loader   The function loading the cooldowns, may return null on failure.
+     */
+    public void pin(UUID playerId, Function<UUID, PlayerCooldowns> loader) {
+        var cooldowns = get(playerId);
+        if (cooldowns == null)
+            cooldowns = loader.apply(playerId);
+        if (cooldowns == null)
+            return;
+
+        _sessions.put(playerId, cooldowns);
+        _transient.invalidate(playerId);
+    }
+
+    /**
+     * Releases the cooldowns of a player.
+     *
+     * @param playerId The UUID of the player.
+     */
+    public void unpin(UUID playerId) {
+        _sessions.remove(playerId);
+        _transient.invalidate(playerId);
+    }
+
+    /**
+     * Removes every cached cooldown.
+     */
+    public void clear() {
+        _sessions.clear();
+        _transient.invalidateAll();
+    }
+}
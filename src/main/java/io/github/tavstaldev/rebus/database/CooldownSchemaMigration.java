@@ -0,0 +1,153 @@
+package io.github.tavstaldev.rebus.database;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.rebus.Rebus;
+
+import java.sql.*;
+import java.util.Locale;
+
+/**
+ * Migrates cooldown tables created by older versions of the plugin.
+ * <p>
+ * Older tables stored {@code ExpiresAt} as a {@code DATETIME} in the server's local time zone, and their primary key
+ * did not include the cooldown type. The migration recreates the table with {@code ExpiresAt} as UTC epoch milliseconds
+ * and copies every cooldown that has not expired yet. It uses plain JDBC, so it works for both MySQL and SQLite.
+ * </p>
+ */
+public final class CooldownSchemaMigration {
+    private static final PluginLogger _logger = Rebus.logger().withModule(CooldownSchemaMigration.class);
+
+    private CooldownSchemaMigration() {}
+
+    /**
+     * Checks whether the cooldown table exists and still uses the legacy {@code DATETIME} expiry column.
+     *
+     * @param connection The connection to use.
+     * @param table      The name of the cooldown table.
+     * @return True if the table needs to be migrated, false otherwise.
+     */
+    public static boolean isLegacy(Connection connection, String table) {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(String.format("SELECT ExpiresAt FROM %s LIMIT 0;", table))) {
+            String typeName = result.getMetaData().getColumnTypeName(1).toUpperCase(Locale.ROOT);
+            return typeName.contains("DATE") || typeName.contains("TIME");
+        } catch (SQLException ex) {
+            // The table does not exist yet.
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the cooldown table has to be migrated, either because it still uses the legacy schema
+     * or because an earlier migration was interrupted and left its data in the backup table.
+     *
+     * @param connection The connection to use.
+     * @param table      The name of the cooldown table.
+     * @return True if {@link #migrate} has to be run, false otherwise.
+     */
+    public static boolean needsMigration(Connection connection, String table) {
+        return isLegacy(connection, table) || exists(connection, table + "_legacy");
+    }
+
+    /**
+     * Checks whether a table exists.
+     *
+     * @param connection The connection to use.
+     * @param table      The name of the table.
+     * @return True if the table exists, false otherwise.
+     */
+    private static boolean exists(Connection connection, String table) {
+        try (Statement statement = connection.createStatement();
+             ResultSet ignored = statement.executeQuery(String.format("SELECT 1 FROM %s LIMIT 0;", table))) {
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Recreates the cooldown table with the current schema and copies the cooldowns that have not expired yet.
+     * <p>
+     * The legacy table is kept as {@code <table>_legacy} until every cooldown has been copied. All steps run in a
+     * single transaction, which makes the migration atomic where DDL is transactional (SQLite). Where DDL commits
+     * implicitly (MySQL), an interrupted migration is resumed on the next start by copying from the backup table again.
+     * </p>
+     *
+     * @param connection The connection to use.
+     * @param table      The name of the cooldown table.
+     * @param createSql  The statement creating the table with the current schema, if it does not exist yet.
+     * @param insertVerb The dialect's insert statement that skips existing rows, e.g. {@code INSERT IGNORE} or {@code INSERT OR IGNORE}.
+     * @throws SQLException If the migration fails.
+     */
+    public static void migrate(Connection connection, String table, String createSql, String insertVerb) throws SQLException {
+        String legacyTable = table + "_legacy";
+        boolean resume = exists(connection, legacyTable);
+        if (resume && isLegacy(connection, table))
+            throw new SQLException(String.format("Both %s and %s use the legacy schema, one of them has to be removed by hand.", table, legacyTable));
+
+        if (resume)
+            _logger.info(String.format("Resuming the interrupted migration of table %s from %s...", table, legacyTable));
+        else
+            _logger.info(String.format("Migrating table %s to epoch millisecond cooldowns...", table));
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                if (!resume)
+                    statement.executeUpdate(String.format("ALTER TABLE %s RENAME TO %s;", table, legacyTable));
+                statement.executeUpdate(createSql);
+            }
+
+            int migrated = copy(connection, legacyTable, table, insertVerb);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(String.format("DROP TABLE %s;", legacyTable));
+            }
+            connection.commit();
+            _logger.info(String.format("Migrated %d active cooldown(s) of table %s.", migrated, table));
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Copies the cooldowns that have not expired yet from the legacy table, skipping the ones that already exist.
+     *
+     * @param connection  The connection to use.
+     * @param legacyTable The name of the legacy table.
+     * @param table       The name of the cooldown table.
+     * @param insertVerb  The dialect's insert statement that skips existing rows.
+     * @return The number of cooldowns read from the legacy table.
+     * @throws SQLException If the copy fails.
+     */
+    private static int copy(Connection connection, String legacyTable, String table, String insertVerb) throws SQLException {
+        int migrated = 0;
+        long now = System.currentTimeMillis();
+        String selectSql = String.format("SELECT PlayerId, Context, Type, Chest, ExpiresAt FROM %s;", legacyTable);
+        String insertSql = String.format("%s INTO %s (PlayerId, Context, Type, Chest, ExpiresAt) VALUES (?, ?, ?, ?, ?);", insertVerb, table);
+        try (Statement select = connection.createStatement();
+             ResultSet result = select.executeQuery(selectSql);
+             PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            while (result.next()) {
+                // The legacy value was written from a LocalDateTime, so reading it back uses the same local time zone.
+                Timestamp expiresAt = result.getTimestamp("ExpiresAt");
+                if (expiresAt == null || expiresAt.getTime() <= now)
+                    continue;
+
+                insert.setString(1, result.getString("PlayerId"));
+                insert.setString(2, result.getString("Context"));
+                insert.setString(3, result.getString("Type"));
+                insert.setString(4, result.getString("Chest"));
+                insert.setLong(5, expiresAt.getTime());
+                insert.addBatch();
+                migrated++;
+            }
+            insert.executeBatch();
+        }
+        return migrated;
+    }
+}
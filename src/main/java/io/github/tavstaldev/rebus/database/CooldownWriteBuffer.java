@@ -0,0 +1,161 @@
+package io.github.tavstaldev.rebus.database;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.rebus.Rebus;
+import io.github.tavstaldev.rebus.models.Cooldown;
+import io.github.tavstaldev.rebus.models.ECooldownType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for cooldown upserts.
+ * <p>
+ * Cooldowns are coalesced per player, cooldown type and chest, so only the latest expiry of each key is written.
+ * The buffer is flushed as a single JDBC batch when it reaches the configured size, on a fixed interval, and when it is closed.
+ * Size-triggered and periodic flushes run on the {@link DatabaseExecutor} thread. The final flush of {@link #close()}
+ * runs on the calling thread, which is the main thread when the plugin is disabled, since the executor has stopped by then.
+ * </p>
+ */
+public class CooldownWriteBuffer {
+    private final PluginLogger _logger = Rebus.logger().withModule(CooldownWriteBuffer.class);
+
+    /**
+     * Writes a batch of cooldowns to the database.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        /**
+         * Writes the given cooldowns in a single batch.
+         *
+         * @param entries The cooldowns to write.
+         * @throws Exception If the batch could not be written.
+         */
+        void write(Collection<Entry> entries) throws Exception;
+    }
+
+    /**
+     * A cooldown waiting to be written, together with the player it belongs to.
+     *
+     * @param playerId The UUID of the player.
+     * @param cooldown The cooldown to write.
+     */
+    public record Entry(UUID playerId, Cooldown cooldown) {}
+
+    // Key used to coalesce writes of the same cooldown.
+    private record Key(UUID playerId, ECooldownType type, String chest) {}
+
+    private final Map<Key, Entry> _pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean _flushRequested = new AtomicBoolean(false);
+    private final BatchWriter _writer;
+    private final int _batchSize;
+    private final ScheduledFuture<?> _flushTask;
+
+    /**
+     * Creates a write-behind buffer and schedules its periodic flush.
+     *
+     * @param writer        The writer used to persist batches.
+     * @param batchSize     The number of pending cooldowns that triggers an immediate flush.
+     * @param flushInterval The interval between periodic flushes in seconds.
+     */
+    public CooldownWriteBuffer(BatchWriter writer, int batchSize, long flushInterval) {
+        this._writer = writer;
+        this._batchSize = Math.max(1, batchSize);
+        this._flushTask = DatabaseExecutor.schedule(this::flush, Math.max(1, flushInterval), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues a cooldown for writing, replacing any pending write for the same key.
+     *
+     * @param playerId The UUID of the player.
+     * @param cooldown The cooldown to write.
+     */
+    public void add(UUID playerId, Cooldown cooldown) {
+        _pending.put(new Key(playerId, cooldown.getType(), cooldown.getChest()), new Entry(playerId, cooldown));
+        if (_pending.size() >= _batchSize && _flushRequested.compareAndSet(false, true)) {
+            DatabaseExecutor.run(this::flush);
+        }
+    }
+
+    /**
+     * Drops the pending write of a specific cooldown.
+     *
+     * @param playerId The UUID of the player.
+     * @param type     The type of the cooldown.
+     * @param chestKey The key of the chest.
+     */
+    public void discard(UUID playerId, ECooldownType type, String chestKey) {
+        _pending.remove(new Key(playerId, type, chestKey));
+    }
+
+    /**
+     * Drops every pending write of a player.
+     *
+     * @param playerId The UUID of the player.
+     */
+    public void discard(UUID playerId) {
+        _pending.keySet().removeIf(key -> key.playerId().equals(playerId));
+    }
+
+    /**
+     * Retrieves the pending cooldowns of a player, so reads can see writes that were not flushed yet.
+     *
+     * @param playerId The UUID of the player.
+     * @return A list of pending cooldowns.
+     */
+    public List<Cooldown> getPending(UUID playerId) {
+        List<Cooldown> cooldowns = new ArrayList<>();
+        for (Entry entry : _pending.values()) {
+            if (entry.playerId().equals(playerId))
+                cooldowns.add(entry.cooldown());
+        }
+        return cooldowns;
+    }
+
+    /**
+     * Writes every pending cooldown as a single batch.
+     * Entries that fail to be written are queued again, unless a newer value has been queued in the meantime.
+     */
+    public void flush() {
+        _flushRequested.set(false);
+        if (_pending.isEmpty())
+            return;
+
+        List<Entry> batch = new ArrayList<>(_pending.size());
+        for (var mapEntry : _pending.entrySet()) {
+            // Only take the value that was read, so a newer write queued concurrently stays pending.
+            if (_pending.remove(mapEntry.getKey(), mapEntry.getValue()))
+                batch.add(mapEntry.getValue());
+        }
+        if (batch.isEmpty())
+            return;
+
+        try {
+            _writer.write(batch);
+            _logger.debug(String.format("Flushed %d cooldown(s).", batch.size()));
+        } catch (Exception ex) {
+            _logger.error(String.format("Unknown error happened while flushing cooldowns...\n%s", ex.getMessage()));
+            for (Entry entry : batch) {
+                _pending.putIfAbsent(new Key(entry.playerId(), entry.cooldown().getType(), entry.cooldown().getChest()), entry);
+            }
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes every pending cooldown on the calling thread.
+     */
+    public void close() {
+        if (_flushTask != null)
+            _flushTask.cancel(false);
+        flush();
+        if (!_pending.isEmpty())
+            _logger.warn(String.format("%d cooldown(s) could not be saved.", _pending.size()));
+    }
+}
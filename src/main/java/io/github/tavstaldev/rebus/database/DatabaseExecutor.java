@@ -0,0 +1,161 @@
+package io.github.tavstaldev.rebus.database;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.rebus.Rebus;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Owns the dedicated I/O thread used by the database layer.
+ * Every database call that originates from gameplay code is submitted here, so JDBC round trips never block a server tick.
+ * The executor is single-threaded, which keeps writes and reads for the same player strictly ordered.
+ */
+public final class DatabaseExecutor {
+    private static final PluginLogger _logger = Rebus.logger().withModule(DatabaseExecutor.class);
+
+    // The executor running all database work.
+    private static ScheduledExecutorService _executor;
+
+    private DatabaseExecutor() {}
+
+    /**
+     * Starts the database thread if it is not running yet.
+     */
+    public static synchronized void start() {
+        if (_executor != null && !_executor.isShutdown())
+            return;
+
+        _executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Rebus-Database");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the database thread, waiting for already submitted work to finish.
+     */
+    public static synchronized void shutdown() {
+        if (_executor == null)
+            return;
+
+        _executor.shutdown();
+        try {
+            if (!_executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                _logger.warn("Database tasks did not finish in time, forcing shutdown.");
+                _executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            _executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        _executor = null;
+    }
+
+    /**
+     * Runs a task on the database thread.
+     *
+     * @param task The task to run.
+     * @return A future completed once the task has finished.
+     */
+    public static CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, executor());
+    }
+
+    /**
+     * Computes a value on the database thread.
+     *
+     * @param supplier The supplier producing the value.
+     * @param <T>      The type of the value.
+     * @return A future completed with the supplied value.
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor());
+    }
+
+    /**
+     * Runs a task on the database thread periodically.
+     * Periodic tasks are cancelled automatically when the executor shuts down.
+     *
+     * @param task   The task to run.
+     * @param period The period between runs.
+     * @param unit   The time unit of the period.
+     * @return The scheduled future, or null if the executor is not running.
+     */
+    public static synchronized ScheduledFuture<?> schedule(Runnable task, long period, TimeUnit unit) {
+        if (_executor == null || _executor.isShutdown())
+            return null;
+        return _executor.scheduleWithFixedDelay(task, period, period, unit);
+    }
+
+    /**
+     * Delivers the result of a database future to the main server thread.
+     * The callback is skipped if the plugin has been disabled in the meantime, and failures are logged instead of thrown.
+     *
+     * @param future   The future to wait for.
+     * @param callback The callback executed on the main thread with the result.
+     * @param <T>      The type of the result.
+     */
+    public static <T> void callback(CompletableFuture<T> future, Consumer<T> callback) {
+        callback(future, callback, null);
+    }
+
+    /**
+     * Delivers the result of a database future to the main server thread.
+     * The callbacks are skipped if the plugin has been disabled in the meantime, and failures are logged instead of thrown.
+     *
+     * @param future    The future to wait for.
+     * @param callback  The callback executed on the main thread with the result.
+     * @param onFailure The callback executed on the main thread if the future fails, or null.
+     * @param <T>       The type of the result.
+     */
+    public static <T> void callback(CompletableFuture<T> future, Consumer<T> callback, @Nullable Runnable onFailure) {
+        future.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                _logger.error("Database task failed: " + throwable.getMessage());
+                if (onFailure != null)
+                    runOnMainThread(onFailure);
+                return;
+            }
+
+            runOnMainThread(() -> callback.accept(result));
+        });
+    }
+
+    /**
+     * Runs a task on the main server thread, unless the plugin has been disabled.
+     *
+     * @param task The task to run.
+     */
+    private static void runOnMainThread(Runnable task) {
+        if (!Rebus.Instance.isEnabled())
+            return;
+
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return;
+        }
+        Bukkit.getScheduler().runTask(Rebus.Instance, task);
+    }
+
+    /**
+     * Retrieves the running executor.
+     * Once the executor has been shut down (e.g. while the plugin is disabling), work runs directly on the calling thread.
+     *
+     * @return The database executor.
+     */
+    private static synchronized Executor executor() {
+        if (_executor == null || _executor.isShutdown())
+            return Runnable::run;
+        return _executor;
+    }
+}
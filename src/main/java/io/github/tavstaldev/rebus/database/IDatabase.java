@@ -2,12 +2,19 @@ package io.github.tavstaldev.rebus.database;
 
 import io.github.tavstaldev.rebus.models.Cooldown;
 import io.github.tavstaldev.rebus.models.ECooldownType;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface representing the database operations for managing cooldowns and other data.
+ * <p>
+ * The synchronous methods perform blocking JDBC calls and must not be used from the main server thread.
+ * Gameplay code should use the {@code *Async} variants, which run on the {@link DatabaseExecutor} thread,
+ * and use {@link DatabaseExecutor#callback} to continue on the main thread.
+ * </p>
  */
 public interface IDatabase {
 
@@ -52,6 +59,21 @@ public interface IDatabase {
      */
     void removeAllCooldowns(UUID playerId);
 
+    /**
+     * Loads all cooldowns of a player and keeps them cached until {@link #unloadPlayer(UUID)} is called.
+     * Intended to be called once per session, before the player joins.
+     *
+     * @param playerId The UUID of the player.
+     */
+    void loadPlayer(UUID playerId);
+
+    /**
+     * Releases the cached cooldowns of a player, typically when the player quits.
+     *
+     * @param playerId The UUID of the player.
+     */
+    void unloadPlayer(UUID playerId);
+
     /**
      * Retrieves all cooldowns for a specific player from the database.
      *
@@ -67,6 +89,93 @@ public interface IDatabase {
      * @param type The type of cooldown (e.g., ECooldownType).
      * @param chestKey The key identifying the chest associated with the cooldown.
      * @return The remaining cooldown time in seconds.
+     * @throws IllegalStateException If the cooldowns of the player could not be loaded.
      */
     long getCooldown(UUID playerId, ECooldownType type, String chestKey);
+
+    /**
+     * Deletes up to {@code limit} expired cooldowns of every player and context from the database.
+     * Callers repeat the call until it returns less than {@code limit} to purge every expired cooldown.
+     *
+     * @param limit The maximum number of rows to delete.
+     * @return The number of deleted rows.
+     */
+    int purgeExpiredCooldowns(int limit);
+
+    /**
+     * Retrieves the current state of the connection pool.
+     *
+     * @return The pool statistics, or null if the implementation does not use a connection pool.
+     */
+    default @Nullable PoolStats getPoolStats() {
+        return null;
+    }
+
+    /**
+     * Adds a cooldown for a specific player on the database thread.
+     *
+     * @param playerId The UUID of the player.
+     * @param type The type of cooldown (e.g., ECooldownType).
+     * @param chestKey The key identifying the chest associated with the cooldown.
+     * @param seconds The duration of the cooldown in seconds.
+     * @return A future completed once the cooldown has been stored.
+     */
+    default CompletableFuture<Void> addCooldownAsync(UUID playerId, ECooldownType type, String chestKey, long seconds) {
+        return DatabaseExecutor.run(() -> addCooldown(playerId, type, chestKey, seconds));
+    }
+
+    /**
+     * Removes a specific cooldown for a player on the database thread.
+     *
+     * @param playerId The UUID of the player.
+     * @param type The type of cooldown to remove (e.g., ECooldownType).
+     * @param chestKey The key identifying the chest associated with the cooldown.
+     * @return A future completed once the cooldown has been removed.
+     */
+    default CompletableFuture<Void> removeCooldownsAsync(UUID playerId, ECooldownType type, String chestKey) {
+        return DatabaseExecutor.run(() -> removeCooldowns(playerId, type, chestKey));
+    }
+
+    /**
+     * Removes all cooldowns for a specific player on the database thread.
+     *
+     * @param playerId The UUID of the player whose cooldowns are to be removed.
+     * @return A future completed once the cooldowns have been removed.
+     */
+    default CompletableFuture<Void> removeAllCooldownsAsync(UUID playerId) {
+        return DatabaseExecutor.run(() -> removeAllCooldowns(playerId));
+    }
+
+    /**
+     * Retrieves all cooldowns for a specific player on the database thread.
+     *
+     * @param playerId The UUID of the player.
+     * @return A future completed with the player's cooldowns.
+     */
+    default CompletableFuture<Set<Cooldown>> getCooldownsAsync(UUID playerId) {
+        return DatabaseExecutor.supply(() -> getCooldowns(playerId));
+    }
+
+    /**
+     * Retrieves the remaining cooldown time for a specific player and chest on the database thread.
+     *
+     * @param playerId The UUID of the player.
+     * @param type The type of cooldown (e.g., ECooldownType).
+     * @param chestKey The key identifying the chest associated with the cooldown.
+     * @return A future completed with the remaining cooldown time in seconds,
+     * or completed exceptionally if the cooldowns of the player could not be loaded.
+     */
+    default CompletableFuture<Long> getCooldownAsync(UUID playerId, ECooldownType type, String chestKey) {
+        return DatabaseExecutor.supply(() -> getCooldown(playerId, type, chestKey));
+    }
+
+    /**
+     * Deletes up to {@code limit} expired cooldowns on the database thread.
+     *
+     * @param limit The maximum number of rows to delete.
+     * @return A future completed with the number of deleted rows.
+     */
+    default CompletableFuture<Integer> purgeExpiredCooldownsAsync(int limit) {
+        return DatabaseExecutor.supply(() -> purgeExpiredCooldowns(limit));
+    }
 }
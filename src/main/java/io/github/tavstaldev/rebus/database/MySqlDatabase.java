@@ -1,26 +1,23 @@
 package io.github.tavstaldev.rebus.database;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.rebus.Rebus;
 import io.github.tavstaldev.rebus.RebusConfig;
 import io.github.tavstaldev.rebus.models.Cooldown;
 import io.github.tavstaldev.rebus.models.ECooldownType;
-import org.jetbrains.annotations.NotNull;
+import io.github.tavstaldev.rebus.models.PlayerCooldowns;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.Timestamp;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Represents the MySQL database implementation for managing cooldowns and other data.
@@ -28,11 +25,13 @@ import java.util.concurrent.TimeUnit;
  */
 public class MySqlDatabase implements IDatabase {
     private HikariDataSource _dataSource;
-    private final Cache<@NotNull UUID, Set<Cooldown>> _playerCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(5, TimeUnit.MINUTES)
-            .build();
+    private final CooldownCache _cache = new CooldownCache();
+    // Kept in a field, so cache hits do not allocate a method reference.
+    private final Function<UUID, PlayerCooldowns> _loader = this::loadCooldowns;
     private RebusConfig _config;
+    private CooldownWriteBuffer _writeBuffer;
+    // SQL of the cooldown statements, built once for the configured table prefix.
+    private String _table, _upsertSql, _deleteSql, _deleteAllSql, _purgeSql, _selectSql;
     private final PluginLogger _logger = Rebus.logger().withModule(MySqlDatabase.class);
 
     /**
@@ -41,14 +40,36 @@ public class MySqlDatabase implements IDatabase {
     @Override
     public void load() {
         _config = Rebus.config();
+        buildQueries();
         _dataSource = CreateDataSource();
+        _writeBuffer = new CooldownWriteBuffer(this::writeCooldowns, _config.storageWriteBatchSize, _config.storageWriteFlushInterval);
     }
 
     /**
-     * Unloads the database by closing the connection pool.
+     * Builds the SQL of the cooldown statements for the configured table prefix.
+     */
+    private void buildQueries() {
+        _table = String.format("%s_cooldowns", _config.storageTablePrefix);
+        _upsertSql = String.format("INSERT INTO %s (PlayerId, Context, Type, Chest, ExpiresAt) " +
+                        "VALUES (?, ?, ?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE ExpiresAt = VALUES(ExpiresAt);",
+                _table);
+        _deleteSql = String.format("DELETE FROM %s WHERE PlayerId=? AND Context=? AND Type=? AND Chest=? LIMIT 1;", _table);
+        _deleteAllSql = String.format("DELETE FROM %s WHERE PlayerId=? AND Context=?;", _table);
+        _purgeSql = String.format("DELETE FROM %s WHERE ExpiresAt < ? LIMIT ?;", _table);
+        _selectSql = String.format("SELECT Type, Chest, ExpiresAt FROM %s WHERE PlayerId=? AND Context=? AND ExpiresAt > ?;", _table);
+    }
+
+    /**
+     * Unloads the database by writing pending cooldowns and closing the connection pool.
      */
     @Override
     public void unload() {
+        if (_writeBuffer != null) {
+            _writeBuffer.close();
+            _writeBuffer = null;
+        }
+        _cache.clear();
         if (_dataSource != null) {
             if (!_dataSource.isClosed())
                 _dataSource.close();
@@ -66,8 +87,23 @@ public class MySqlDatabase implements IDatabase {
             config.setJdbcUrl(String.format("jdbc:mysql://%s:%s/%s", _config.storageHost, _config.storagePort, _config.storageDatabase));
             config.setUsername(_config.storageUsername);
             config.setPassword(_config.storagePassword);
-            config.setMaximumPoolSize(10); // Pool size defaults to 10
-            config.setMaxLifetime(30000);
+            config.setPoolName("Rebus");
+            config.setMaximumPoolSize(_config.storagePoolMaximumSize);
+            config.setMinimumIdle(Math.min(_config.storagePoolMinimumIdle, _config.storagePoolMaximumSize));
+            config.setMaxLifetime(_config.storagePoolMaxLifetime);
+            config.setConnectionTimeout(_config.storagePoolConnectionTimeout);
+            config.setKeepaliveTime(_config.storagePoolKeepaliveTime);
+            config.setLeakDetectionThreshold(_config.storagePoolLeakDetectionThreshold);
+            // Publishes the pool metrics over JMX as com.zaxxer.hikari:type=Pool (Rebus).
+            config.setRegisterMbeans(_config.storagePoolRegisterMbeans);
+
+            // Let Connector/J cache the parsed statements, so the hot paths skip parsing on the server and the client.
+            config.addDataSourceProperty("cachePrepStmts", _config.storageCachePrepStmts);
+            config.addDataSourceProperty("prepStmtCacheSize", _config.storagePrepStmtCacheSize);
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", _config.storagePrepStmtCacheSqlLimit);
+            config.addDataSourceProperty("useServerPrepStmts", _config.storageUseServerPrepStmts);
+            // Sends the write-behind batches as multi-row statements instead of one round trip per row.
+            config.addDataSourceProperty("rewriteBatchedStatements", _config.storageRewriteBatchedStatements);
             return new HikariDataSource(config);
         } catch (Exception ex) {
             _logger.error(String.format("Unknown error happened during the creation of database connection...\n%s", ex.getMessage()));
@@ -75,30 +111,89 @@ public class MySqlDatabase implements IDatabase {
         }
     }
 
+    /**
+     * Retrieves the current state of the connection pool.
+     *
+     * @return The pool statistics, or null if the pool is not running.
+     */
+    @Override
+    public PoolStats getPoolStats() {
+        if (_dataSource == null || _dataSource.isClosed())
+            return null;
+
+        HikariPoolMXBean pool = _dataSource.getHikariPoolMXBean();
+        if (pool == null)
+            return null;
+
+        return new PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                _dataSource.getMaximumPoolSize()
+        );
+    }
+
     /**
      * Checks and creates the necessary database schema if it does not exist.
      */
     @Override
     public void checkSchema() {
         try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("CREATE TABLE IF NOT EXISTS %s_cooldowns (" +
-                            "PlayerId VARCHAR(36), " +
-                            "Context VARCHAR(32), " +
-                            "Type VARCHAR(16), " +
-                            "Chest VARCHAR(32), " +
-                            "ExpiresAt DATETIME," +
-                            "PRIMARY KEY (PlayerId, Context, Chest));",
-                    _config.storageTablePrefix
+            String sql = String.format("CREATE TABLE IF NOT EXISTS %s (" +
+                            "PlayerId VARCHAR(36) NOT NULL, " +
+                            "Context VARCHAR(32) NOT NULL, " +
+                            "Type VARCHAR(16) NOT NULL, " +
+                            "Chest VARCHAR(32) NOT NULL, " +
+                            "ExpiresAt BIGINT NOT NULL," +
+                            "PRIMARY KEY (PlayerId, Context, Type, Chest), " +
+                            "INDEX %s_expires (ExpiresAt));",
+                    _table, _table
             );
+
+            // Tables created by older versions store ExpiresAt as DATETIME, and an interrupted migration leaves a backup table.
+            if (CooldownSchemaMigration.needsMigration(connection, _table)) {
+                CooldownSchemaMigration.migrate(connection, _table, sql, "INSERT IGNORE");
+                return;
+            }
+
             PreparedStatement statement = connection.prepareStatement(sql);
             statement.executeUpdate();
+
+            // MySQL has no CREATE INDEX IF NOT EXISTS, so tables created before the index was added are checked by hand.
+            if (!hasIndex(connection, _table, _table + "_expires")) {
+                try (PreparedStatement indexStatement = connection.prepareStatement(
+                        String.format("CREATE INDEX %s_expires ON %s (ExpiresAt);", _table, _table))) {
+                    indexStatement.executeUpdate();
+                }
+            }
         } catch (Exception ex) {
             _logger.error(String.format("Unknown error happened while creating tables...\n%s", ex.getMessage()));
         }
     }
 
     /**
-     * Adds a cooldown for a specific player in the database.
+     * Checks whether a table has an index with the given name.
+     *
+     * @param connection The connection to use.
+     * @param table      The name of the table.
+     * @param index      The name of the index.
+     * @return True if the index exists, false otherwise.
+     * @throws SQLException If the metadata could not be read.
+     */
+    private boolean hasIndex(Connection connection, String table, String index) throws SQLException {
+        try (ResultSet result = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, table, false, false)) {
+            while (result.next()) {
+                if (index.equalsIgnoreCase(result.getString("INDEX_NAME")))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a cooldown for a specific player.
+     * The cooldown is visible through the cache immediately and written to the database by the write-behind buffer.
      *
      * @param playerId The UUID of the player.
      * @param type The type of cooldown (e.g., ECooldownType).
@@ -107,31 +202,34 @@ public class MySqlDatabase implements IDatabase {
      */
     @Override
     public void addCooldown(UUID playerId, ECooldownType type, String chestKey, long seconds) {
-        try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("INSERT INTO %s_cooldowns (PlayerId, Context, Type, Chest, ExpiresAt) " +
-                            "VALUES (?, ?, ?, ?, ?) " +
-                            "ON DUPLICATE KEY UPDATE ExpiresAt = VALUES(ExpiresAt), Type = VALUES(Type);",
-                    _config.storageTablePrefix);
-
-            var cooldownExpiresAt = LocalDateTime.now().plusSeconds(seconds);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
-                statement.setString(2, _config.storageContext);
-                statement.setString(3, type.name());
-                statement.setString(4, chestKey);
-                statement.setTimestamp(5, Timestamp.valueOf(cooldownExpiresAt));
-                statement.executeUpdate();
-            }
+        var cooldown = new Cooldown(_config.storageContext, type, chestKey, System.currentTimeMillis() + seconds * 1000L);
+        var cached = _cache.get(playerId);
+        if (cached != null) {
+            cached.set(type, chestKey, cooldown.getExpiresAt());
+        }
+        _writeBuffer.add(playerId, cooldown);
+    }
 
-            var cache = _playerCache.getIfPresent(playerId);
-            if (cache == null) {
-                _playerCache.put(playerId, Set.of(new Cooldown(_config.storageContext, type, chestKey, cooldownExpiresAt)));
-            }
-            else {
-                cache.add(new Cooldown(_config.storageContext, type, chestKey, cooldownExpiresAt));
+    /**
+     * Writes a batch of buffered cooldowns to the database.
+     *
+     * @param entries The cooldowns to write.
+     * @throws SQLException If the batch could not be written.
+     */
+    private void writeCooldowns(Collection<CooldownWriteBuffer.Entry> entries) throws SQLException {
+        try (Connection connection = _dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(_upsertSql)) {
+                for (CooldownWriteBuffer.Entry entry : entries) {
+                    var cooldown = entry.cooldown();
+                    statement.setString(1, entry.playerId().toString());
+                    statement.setString(2, cooldown.getContext());
+                    statement.setString(3, cooldown.getType().name());
+                    statement.setString(4, cooldown.getChest());
+                    statement.setLong(5, cooldown.getExpiresAt());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
             }
-        } catch (Exception ex) {
-            _logger.error(String.format("Unknown error happened while adding tables...\n%s", ex.getMessage()));
         }
     }
 
@@ -144,11 +242,9 @@ public class MySqlDatabase implements IDatabase {
      */
     @Override
     public void removeCooldowns(UUID playerId, ECooldownType type, String chestKey) {
+        _writeBuffer.discard(playerId, type, chestKey);
         try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("DELETE FROM %s_cooldowns WHERE PlayerId=? AND Context=? AND Type=? AND Chest=? LIMIT 1;",
-                    _config.storageTablePrefix);
-
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            try (PreparedStatement statement = connection.prepareStatement(_deleteSql)) {
                 statement.setString(1, playerId.toString());
                 statement.setString(2, _config.storageContext);
                 statement.setString(3, type.name());
@@ -156,9 +252,9 @@ public class MySqlDatabase implements IDatabase {
                 statement.executeUpdate();
             }
 
-            var cache = _playerCache.getIfPresent(playerId);
-            if (cache != null) {
-                cache.removeIf(x -> x.getType() == type && x.getChest().equals(chestKey) && x.getContext().equals(_config.storageContext));
+            var cached = _cache.get(playerId);
+            if (cached != null) {
+                cached.remove(type, chestKey);
             }
         } catch (Exception ex) {
             _logger.error(String.format("Unknown error happened while removing tables...\n%s", ex.getMessage()));
@@ -172,45 +268,94 @@ public class MySqlDatabase implements IDatabase {
      */
     @Override
     public void removeAllCooldowns(UUID playerId) {
+        _writeBuffer.discard(playerId);
         try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("DELETE FROM %s_cooldowns WHERE PlayerId=? AND Context=?;",
-                    _config.storageTablePrefix);
-
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            try (PreparedStatement statement = connection.prepareStatement(_deleteAllSql)) {
                 statement.setString(1, playerId.toString());
                 statement.setString(2, _config.storageContext);
                 statement.executeUpdate();
             }
 
-            _playerCache.invalidate(playerId);
+            var cached = _cache.get(playerId);
+            if (cached != null) {
+                cached.clear();
+            }
         } catch (Exception ex) {
             _logger.error(String.format("Unknown error happened while removing tables...\n%s", ex.getMessage()));
         }
     }
 
     /**
-     * Retrieves all cooldowns for a specific player from the database.
+     * Deletes up to {@code limit} expired cooldowns of every player and context from the database.
+     *
+     * @param limit The maximum number of rows to delete.
+     * @return The number of deleted rows.
+     */
+    @Override
+    public int purgeExpiredCooldowns(int limit) {
+        try (Connection connection = _dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(_purgeSql)) {
+                statement.setLong(1, System.currentTimeMillis());
+                statement.setInt(2, limit);
+                return statement.executeUpdate();
+            }
+        } catch (Exception ex) {
+            _logger.error(String.format("Unknown error happened while purging expired cooldowns...\n%s", ex.getMessage()));
+            return 0;
+        }
+    }
+
+    /**
+     * Loads the cooldowns of a player and pins them in the cache until {@link #unloadPlayer(UUID)} is called.
+     *
+     * @param playerId The UUID of the player.
+     */
+    @Override
+    public void loadPlayer(UUID playerId) {
+        _cache.pin(playerId, _loader);
+    }
+
+    /**
+     * Releases the pinned cooldowns of a player.
      *
      * @param playerId The UUID of the player.
-     * @return A set of Cooldown objects representing the player's cooldowns.
+     */
+    @Override
+    public void unloadPlayer(UUID playerId) {
+        _cache.unpin(playerId);
+    }
+
+    /**
+     * Retrieves all cooldowns for a specific player, loading them from the database if they are not cached.
+     *
+     * @param playerId The UUID of the player.
+     * @return A snapshot of Cooldown objects representing the player's cooldowns.
      */
     @Override
     public Set<Cooldown> getCooldowns(UUID playerId) {
-        var data = _playerCache.getIfPresent(playerId);
-        if (data != null && !data.isEmpty()) {
-            return data;
+        var cooldowns = _cache.getOrLoad(playerId, _loader);
+        if (cooldowns == null) {
+            return null;
         }
+        return cooldowns.toCooldowns(_config.storageContext);
+    }
 
-        Set<Cooldown> cooldowns = new HashSet<>();
+    /**
+     * Reads the active cooldowns of a player from the database, including writes still waiting in the write-behind buffer.
+     *
+     * @param playerId The UUID of the player.
+     * @return The cooldowns of the player, or null if an error occurs.
+     */
+    private PlayerCooldowns loadCooldowns(UUID playerId) {
+        PlayerCooldowns cooldowns = new PlayerCooldowns();
         try (Connection connection = _dataSource.getConnection()) {
-            String sql = String.format("SELECT * FROM %s_cooldowns WHERE PlayerId=? AND Context=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            try (PreparedStatement statement = connection.prepareStatement(_selectSql)) {
                 statement.setString(1, playerId.toString());
                 statement.setString(2, _config.storageContext);
+                statement.setLong(3, System.currentTimeMillis());
                 try (ResultSet result = statement.executeQuery()) {
                     while (result.next()) {
-                        cooldowns.add(new Cooldown(result.getString("Context"), ECooldownType.valueOf(result.getString("Type")), result.getString("Chest"), result.getTimestamp("ExpiresAt").toLocalDateTime()));
+                        cooldowns.set(ECooldownType.valueOf(result.getString("Type")), result.getString("Chest"), result.getLong("ExpiresAt"));
                     }
                 }
             }
@@ -219,37 +364,31 @@ public class MySqlDatabase implements IDatabase {
             return null;
         }
 
-        _playerCache.put(playerId, cooldowns);
+        // Overlay cooldowns that are still waiting in the write-behind buffer.
+        for (Cooldown pending : _writeBuffer.getPending(playerId)) {
+            cooldowns.set(pending.getType(), pending.getChest(), pending.getExpiresAt());
+        }
         return cooldowns;
     }
 
     /**
      * Retrieves the remaining cooldown time for a specific player and chest.
-     * If the cooldown has expired, it is removed from the database.
+     * Expired cooldowns count as no cooldown, they are deleted later by the purge task.
      *
      * @param playerId The UUID of the player.
      * @param type The type of cooldown (e.g., ECooldownType).
      * @param chestKey The key identifying the chest associated with the cooldown.
      * @return The remaining cooldown time in seconds. Returns 0 if no cooldown exists or it has expired.
+     * @throws IllegalStateException If the cooldowns of the player could not be loaded.
      */
     @Override
     public long getCooldown(UUID playerId, ECooldownType type, String chestKey) {
-        long cooldown = 0;
-        final Set<Cooldown> cooldowns = getCooldowns(playerId);
-        if (cooldowns == null || cooldowns.isEmpty())
-            return cooldown;
-        final var now = LocalDateTime.now();
-        for (Cooldown cd : cooldowns) {
-            if (cd.getType() == type && cd.getChest().equals(chestKey) && cd.getContext().equals(_config.storageContext)) {
-                if (cd.getExpiresAt().isAfter(now)) {
-                    cooldown = Duration.between(now, cd.getExpiresAt()).abs().getSeconds();
-                }
-                else {
-                    removeCooldowns(playerId, type, chestKey);
-                }
-                break;
-            }
-        }
-        return cooldown;
+        final PlayerCooldowns cooldowns = _cache.getOrLoad(playerId, _loader);
+        // Fail instead of reporting no cooldown, so a database outage does not let players skip their cooldowns.
+        if (cooldowns == null)
+            throw new IllegalStateException(String.format("Failed to load the cooldowns of player %s.", playerId));
+
+        // Expired rows are left to the purge task, so this lookup never writes to the database.
+        return cooldowns.getRemainingSeconds(type, chestKey, System.currentTimeMillis());
     }
-}
\ No newline at end of file
+}
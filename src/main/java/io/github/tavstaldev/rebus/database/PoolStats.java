@@ -0,0 +1,13 @@
+package io.github.tavstaldev.rebus.database;
+
+/**
+ * A snapshot of the state of a database connection pool.
+ *
+ * @param active  The number of connections currently in use.
+ * @param idle    The number of connections waiting in the pool.
+ * @param total   The total number of open connections.
+ * @param pending The number of threads waiting for a connection.
+ * @param maximum The configured maximum size of the pool.
+ */
+public record PoolStats(int active, int idle, int total, int pending, int maximum) {
+}
@@ -1,86 +1,183 @@
 package io.github.tavstaldev.rebus.database;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.rebus.Rebus;
 import io.github.tavstaldev.rebus.RebusConfig;
 import io.github.tavstaldev.rebus.models.Cooldown;
 import io.github.tavstaldev.rebus.models.ECooldownType;
-import org.jetbrains.annotations.NotNull;
+import io.github.tavstaldev.rebus.models.PlayerCooldowns;
 
 import java.sql.*;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * Represents the SQLite database implementation for managing cooldowns and other data.
+ * Keeps a single long-lived connection in WAL mode and reuses its prepared statements.
  */
 public class SqlLiteDatabase implements IDatabase {
     private RebusConfig _config;
-    private final Cache<@NotNull UUID, Set<Cooldown>> _playerCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(5, TimeUnit.MINUTES)
-            .build();
+    private CooldownWriteBuffer _writeBuffer;
+    private Connection _connection;
+    // Prepared statements of the current connection, keyed by their SQL text.
+    private final Map<String, PreparedStatement> _statements = new HashMap<>();
+    // SQL of the cooldown statements, built once for the configured table prefix.
+    private String _table, _upsertSql, _deleteSql, _deleteAllSql, _purgeSql, _selectSql;
+    private final CooldownCache _cache = new CooldownCache();
+    // Kept in a field, so cache hits do not allocate a method reference.
+    private final Function<UUID, PlayerCooldowns> _loader = this::loadCooldowns;
     private final PluginLogger _logger = Rebus.logger().withModule(SqlLiteDatabase.class);
 
     /**
-     * Loads the database configuration.
+     * Loads the database configuration and opens the connection.
      */
     @Override
     public void load() {
         _config = Rebus.config();
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException ex) {
+            _logger.error("SQLite driver not found.");
+        }
+        buildQueries();
+        getConnection();
+        _writeBuffer = new CooldownWriteBuffer(this::writeCooldowns, _config.storageWriteBatchSize, _config.storageWriteFlushInterval);
     }
 
     /**
-     * Unloads the database. Currently, no specific actions are performed.
+     * Builds the SQL of the cooldown statements for the configured table prefix.
+     */
+    private void buildQueries() {
+        _table = String.format("%s_cooldowns", _config.storageTablePrefix);
+        _upsertSql = String.format("INSERT INTO %s (PlayerId, Context, Type, Chest, ExpiresAt) " +
+                        "VALUES (?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (PlayerId, Context, Type, Chest) DO UPDATE SET " +
+                        "  ExpiresAt = excluded.ExpiresAt;",
+                _table);
+        _deleteSql = String.format("DELETE FROM %s WHERE PlayerId=? AND Type=? AND Context=? AND Chest=?;", _table);
+        _deleteAllSql = String.format("DELETE FROM %s WHERE PlayerId=? AND Context=?;", _table);
+        // SQLite only supports DELETE ... LIMIT when compiled with an optional flag, so the rows are selected first.
+        _purgeSql = String.format("DELETE FROM %s WHERE rowid IN " +
+                        "(SELECT rowid FROM %s WHERE ExpiresAt < ? LIMIT ?);",
+                _table, _table);
+        _selectSql = String.format("SELECT Type, Chest, ExpiresAt FROM %s WHERE PlayerId=? AND Context=? AND ExpiresAt > ?;", _table);
+    }
+
+    /**
+     * Unloads the database by writing pending cooldowns and closing the connection.
      */
     @Override
-    public void unload() {}
+    public void unload() {
+        if (_writeBuffer != null) {
+            _writeBuffer.close();
+            _writeBuffer = null;
+        }
+        _cache.clear();
+        closeConnection();
+    }
 
     /**
-     * Creates a connection to the SQLite database.
+     * Retrieves the connection to the SQLite database, opening it if it is not open yet.
+     * The connection is configured for WAL journaling, which lets reads proceed while a write is in progress.
      *
-     * @return A Connection object to the database, or null if an error occurs.
+     * @return The Connection object to the database, or null if an error occurs.
      */
-    public Connection CreateConnection() {
+    public synchronized Connection getConnection() {
         try {
-            Class.forName("org.sqlite.JDBC");
-            return DriverManager.getConnection(String.format("jdbc:sqlite:plugins/Rebus/%s.db", _config.storageFilename));
+            if (_connection != null && !_connection.isClosed())
+                return _connection;
+
+            _statements.clear();
+            _connection = DriverManager.getConnection(String.format("jdbc:sqlite:plugins/Rebus/%s.db", _config.storageFilename));
+            try (Statement statement = _connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL;");
+                // WAL is crash safe with NORMAL, FULL would sync on every commit.
+                statement.execute("PRAGMA synchronous=NORMAL;");
+                // Negative values are in KiB, so this keeps up to 8 MiB of pages in memory.
+                statement.execute("PRAGMA cache_size=-8192;");
+                statement.execute("PRAGMA temp_store=MEMORY;");
+            }
+            return _connection;
         } catch (Exception ex) {
             _logger.error(String.format("Unknown error happened while creating db connection...\n%s", ex.getMessage()));
             return null;
         }
     }
 
+    /**
+     * Closes the cached statements and the connection.
+     */
+    private synchronized void closeConnection() {
+        for (PreparedStatement statement : _statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {}
+        }
+        _statements.clear();
+
+        if (_connection == null)
+            return;
+        try {
+            _connection.close();
+        } catch (SQLException ex) {
+            _logger.error(String.format("Unknown error happened while closing db connection...\n%s", ex.getMessage()));
+        }
+        _connection = null;
+    }
+
+    /**
+     * Retrieves a cached prepared statement for the given SQL, preparing it on first use.
+     * Callers must hold the lock of this instance while using the statement.
+     *
+     * @param sql The SQL text of the statement.
+     * @return The prepared statement with its parameters cleared.
+     * @throws SQLException If the statement could not be prepared.
+     */
+    private PreparedStatement prepare(String sql) throws SQLException {
+        var statement = _statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            var connection = getConnection();
+            if (connection == null)
+                throw new SQLException("The database connection is not available.");
+            statement = connection.prepareStatement(sql);
+            _statements.put(sql, statement);
+        } else {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
     /**
      * Checks and creates the necessary database schema if it does not exist.
      */
     @Override
-    public void checkSchema() {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("CREATE TABLE IF NOT EXISTS %s_cooldowns (" +
-                            "PlayerId VARCHAR(36), " +
-                            "Context VARCHAR(32), " +
-                            "Type VARCHAR(16), " +
-                            "Chest VARCHAR(32), " +
-                            "ExpiresAt DATETIME," +
-                            "PRIMARY KEY (PlayerId, Context, Chest));",
-                    _config.storageTablePrefix
+    public synchronized void checkSchema() {
+        try (Statement statement = getConnection().createStatement()) {
+            String sql = String.format("CREATE TABLE IF NOT EXISTS %s (" +
+                            "PlayerId VARCHAR(36) NOT NULL, " +
+                            "Context VARCHAR(32) NOT NULL, " +
+                            "Type VARCHAR(16) NOT NULL, " +
+                            "Chest VARCHAR(32) NOT NULL, " +
+                            "ExpiresAt BIGINT NOT NULL," +
+                            "PRIMARY KEY (PlayerId, Context, Type, Chest));",
+                    _table
             );
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.executeUpdate();
+
+            // Tables created by older versions store ExpiresAt as DATETIME, and an interrupted migration leaves a backup table.
+            if (CooldownSchemaMigration.needsMigration(statement.getConnection(), _table)) {
+                CooldownSchemaMigration.migrate(statement.getConnection(), _table, sql, "INSERT OR IGNORE");
+            } else {
+                statement.executeUpdate(sql);
+            }
+            statement.executeUpdate(String.format("CREATE INDEX IF NOT EXISTS %s_expires ON %s (ExpiresAt);", _table, _table));
         } catch (Exception ex) {
             _logger.error(String.format("Unknown error happened while creating tables...\n%s", ex.getMessage()));
         }
     }
 
     /**
-     * Adds a cooldown for a specific player in the database.
+     * Adds a cooldown for a specific player.
+     * The cooldown is visible through the cache immediately and written to the database by the write-behind buffer.
      *
      * @param playerId The UUID of the player.
      * @param type The type of cooldown (e.g., ECooldownType).
@@ -89,33 +186,43 @@ public class SqlLiteDatabase implements IDatabase {
      */
     @Override
     public void addCooldown(UUID playerId, ECooldownType type, String chestKey, long seconds) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("INSERT INTO %s_cooldowns (PlayerId, Context, Type, Chest, ExpiresAt) " +
-                            "VALUES (?, ?, ?, ?, ?)" +
-                            "ON CONFLICT (PlayerId, Context, Chest) DO UPDATE SET " +
-                            "  ExpiresAt = excluded.ExpiresAt, " +
-                            "  Type = excluded.Type;",
-                    _config.storageTablePrefix);
-
-            var cooldownExpiresAt = LocalDateTime.now().plusSeconds(seconds);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, playerId.toString());
-                statement.setString(2, _config.storageContext);
-                statement.setString(3, type.name());
-                statement.setString(4, chestKey);
-                statement.setTimestamp(5, Timestamp.valueOf(cooldownExpiresAt));
-                statement.executeUpdate();
-            }
+        var cooldown = new Cooldown(_config.storageContext, type, chestKey, System.currentTimeMillis() + seconds * 1000L);
+        var cached = _cache.get(playerId);
+        if (cached != null) {
+            cached.set(type, chestKey, cooldown.getExpiresAt());
+        }
+        _writeBuffer.add(playerId, cooldown);
+    }
 
-            var cache = _playerCache.getIfPresent(playerId);
-            if (cache == null) {
-                _playerCache.put(playerId, Set.of(new Cooldown(_config.storageContext, type, chestKey, cooldownExpiresAt)));
-            }
-            else {
-                cache.add(new Cooldown(_config.storageContext, type, chestKey, cooldownExpiresAt));
+    /**
+     * Writes a batch of buffered cooldowns to the database.
+     *
+     * @param entries The cooldowns to write.
+     * @throws SQLException If the batch could not be written.
+     */
+    private synchronized void writeCooldowns(Collection<CooldownWriteBuffer.Entry> entries) throws SQLException {
+        // Write the whole batch in one transaction, so SQLite syncs the journal only once.
+        PreparedStatement statement = prepare(_upsertSql);
+        var connection = statement.getConnection();
+        connection.setAutoCommit(false);
+        try {
+            for (CooldownWriteBuffer.Entry entry : entries) {
+                var cooldown = entry.cooldown();
+                statement.setString(1, entry.playerId().toString());
+                statement.setString(2, cooldown.getContext());
+                statement.setString(3, cooldown.getType().name());
+                statement.setString(4, cooldown.getChest());
+                statement.setLong(5, cooldown.getExpiresAt());
+                statement.addBatch();
             }
-        } catch (Exception ex) {
-            _logger.error(String.format("Unknown error happened while adding tables...\n%s", ex.getMessage()));
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException ex) {
+            statement.clearBatch();
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(true);
         }
     }
 
@@ -128,11 +235,10 @@ public class SqlLiteDatabase implements IDatabase {
      */
     @Override
     public void removeCooldowns(UUID playerId, ECooldownType type, String chestKey) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("DELETE FROM %s_cooldowns WHERE PlayerId=? AND Type=? AND Context=? AND Chest=?;",
-                    _config.storageTablePrefix);
-
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        _writeBuffer.discard(playerId, type, chestKey);
+        try {
+            synchronized (this) {
+                PreparedStatement statement = prepare(_deleteSql);
                 statement.setString(1, playerId.toString());
                 statement.setString(2, type.name());
                 statement.setString(3, _config.storageContext);
@@ -140,9 +246,9 @@ public class SqlLiteDatabase implements IDatabase {
                 statement.executeUpdate();
             }
 
-            var cache = _playerCache.getIfPresent(playerId);
-            if (cache != null) {
-                cache.removeIf(x -> x.getType() == type && x.getChest().equals(chestKey) && x.getContext().equals(_config.storageContext));
+            var cached = _cache.get(playerId);
+            if (cached != null) {
+                cached.remove(type, chestKey);
             }
         } catch (Exception ex) {
             _logger.error(String.format("Unknown error happened while removing tables...\n%s", ex.getMessage()));
@@ -156,45 +262,97 @@ public class SqlLiteDatabase implements IDatabase {
      */
     @Override
     public void removeAllCooldowns(UUID playerId) {
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("DELETE FROM %s_cooldowns WHERE PlayerId=? AND Context=?;",
-                    _config.storageTablePrefix);
-
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        _writeBuffer.discard(playerId);
+        try {
+            synchronized (this) {
+                PreparedStatement statement = prepare(_deleteAllSql);
                 statement.setString(1, playerId.toString());
                 statement.setString(2, _config.storageContext);
                 statement.executeUpdate();
             }
 
-            _playerCache.invalidate(playerId);
+            var cached = _cache.get(playerId);
+            if (cached != null) {
+                cached.clear();
+            }
         } catch (Exception ex) {
             _logger.error(String.format("Unknown error happened while removing tables...\n%s", ex.getMessage()));
         }
     }
 
     /**
-     * Retrieves all cooldowns for a specific player from the database.
+     * Deletes up to {@code limit} expired cooldowns of every player and context from the database.
+     *
+     * @param limit The maximum number of rows to delete.
+     * @return The number of deleted rows.
+     */
+    @Override
+    public int purgeExpiredCooldowns(int limit) {
+        try {
+            synchronized (this) {
+                PreparedStatement statement = prepare(_purgeSql);
+                statement.setLong(1, System.currentTimeMillis());
+                statement.setInt(2, limit);
+                return statement.executeUpdate();
+            }
+        } catch (Exception ex) {
+            _logger.error(String.format("Unknown error happened while purging expired cooldowns...\n%s", ex.getMessage()));
+            return 0;
+        }
+    }
+
+    /**
+     * Loads the cooldowns of a player and pins them in the cache until {@link #unloadPlayer(UUID)} is called.
+     *
+     * @param playerId The UUID of the player.
+     */
+    @Override
+    public void loadPlayer(UUID playerId) {
+        _cache.pin(playerId, _loader);
+    }
+
+    /**
+     * Releases the pinned cooldowns of a player.
      *
      * @param playerId The UUID of the player.
-     * @return A set of Cooldown objects representing the player's cooldowns.
+     */
+    @Override
+    public void unloadPlayer(UUID playerId) {
+        _cache.unpin(playerId);
+    }
+
+    /**
+     * Retrieves all cooldowns for a specific player, loading them from the database if they are not cached.
+     *
+     * @param playerId The UUID of the player.
+     * @return A snapshot of Cooldown objects representing the player's cooldowns.
      */
     @Override
     public Set<Cooldown> getCooldowns(UUID playerId) {
-        var data = _playerCache.getIfPresent(playerId);
-        if (data != null && !data.isEmpty()) {
-            return data;
+        var cooldowns = _cache.getOrLoad(playerId, _loader);
+        if (cooldowns == null) {
+            return null;
         }
+        return cooldowns.toCooldowns(_config.storageContext);
+    }
 
-        Set<Cooldown> cooldowns = new HashSet<>();
-        try (Connection connection = CreateConnection()) {
-            String sql = String.format("SELECT * FROM %s_cooldowns WHERE PlayerId=? AND Context=?;",
-                    _config.storageTablePrefix);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+    /**
+     * Reads the active cooldowns of a player from the database, including writes still waiting in the write-behind buffer.
+     *
+     * @param playerId The UUID of the player.
+     * @return The cooldowns of the player, or null if an error occurs.
+     */
+    private PlayerCooldowns loadCooldowns(UUID playerId) {
+        PlayerCooldowns cooldowns = new PlayerCooldowns();
+        try {
+            synchronized (this) {
+                PreparedStatement statement = prepare(_selectSql);
                 statement.setString(1, playerId.toString());
                 statement.setString(2, _config.storageContext);
+                statement.setLong(3, System.currentTimeMillis());
                 try (ResultSet result = statement.executeQuery()) {
                     while (result.next()) {
-                        cooldowns.add(new Cooldown(result.getString("Context"), ECooldownType.valueOf(result.getString("Type")), result.getString("Chest"), result.getTimestamp("ExpiresAt").toLocalDateTime()));
+                        cooldowns.set(ECooldownType.valueOf(result.getString("Type")), result.getString("Chest"), result.getLong("ExpiresAt"));
                     }
                 }
             }
@@ -203,35 +361,31 @@ public class SqlLiteDatabase implements IDatabase {
             return null;
         }
 
-        _playerCache.put(playerId, cooldowns);
+        // Overlay cooldowns that are still waiting in the write-behind buffer.
+        for (Cooldown pending : _writeBuffer.getPending(playerId)) {
+            cooldowns.set(pending.getType(), pending.getChest(), pending.getExpiresAt());
+        }
         return cooldowns;
     }
 
     /**
      * Retrieves the remaining cooldown time for a specific player and chest.
-     * If the cooldown has expired, it is removed from the database.
+     * Expired cooldowns count as no cooldown, they are deleted later by the purge task.
      *
      * @param playerId The UUID of the player.
      * @param type The type of cooldown (e.g., ECooldownType).
      * @param chestKey The key identifying the chest associated with the cooldown.
      * @return The remaining cooldown time in seconds. Returns 0 if no cooldown exists or it has expired.
+     * @throws IllegalStateException If the cooldowns of the player could not be loaded.
      */
     @Override
     public long getCooldown(UUID playerId, ECooldownType type, String chestKey) {
-        long cooldown = 0;
-        final Set<Cooldown> cooldowns = getCooldowns(playerId);
-        final var now = LocalDateTime.now();
-        for (Cooldown cd : cooldowns) {
-            if (cd.getType() == type && cd.getChest().equals(chestKey) && cd.getContext().equals(_config.storageContext)) {
-                if (cd.getExpiresAt().isAfter(now)) {
-                    cooldown = Duration.between(now, cd.getExpiresAt()).abs().getSeconds();
-                }
-                else {
-                    removeCooldowns(playerId, type, chestKey);
-                }
-                break;
-            }
-        }
-        return cooldown;
+        final PlayerCooldowns cooldowns = _cache.getOrLoad(playerId, _loader);
+        // Fail instead of reporting no cooldown, so a database outage does not let players skip their cooldowns.
+        if (cooldowns == null)
+            throw new IllegalStateException(String.format("Failed to load the cooldowns of player %s.", playerId));
+
+        // Expired rows are left to the purge task, so this lookup never writes to the database.
+        return cooldowns.getRemainingSeconds(type, chestKey, System.currentTimeMillis());
     }
-}
\ No newline at end of file
+}
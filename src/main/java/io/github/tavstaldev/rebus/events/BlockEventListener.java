@@ -1,25 +1,31 @@
 package io.github.tavstaldev.rebus.events;
 
 import io.github.tavstaldev.rebus.Rebus;
+import io.github.tavstaldev.rebus.database.DatabaseExecutor;
 import io.github.tavstaldev.rebus.models.ECooldownType;
 import io.github.tavstaldev.rebus.models.RebusChest;
 import io.github.tavstaldev.rebus.util.TimeUtil;
 import org.bukkit.Bukkit;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.persistence.PersistentDataType;
 
 import java.util.Map;
 
 /**
- * Handles block-related events such as placing and breaking blocks.
+ * Handles block-related events such as placing chests.
  */
 public class BlockEventListener implements Listener {
+    // Block interaction range of survival players, used if the player has no such attribute.
+    private static final double DEFAULT_REACH = 4.5;
+
+    // Extra distance allowed on top of the range, since the distance is measured to the center of the block.
+    private static final double REACH_TOLERANCE = 1.0;
 
     /**
      * Initializes the event listener by registering it with the Bukkit plugin manager.
@@ -35,39 +41,34 @@ public class BlockEventListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onBlockPlace(BlockPlaceEvent event) {
-        Player player = event.getPlayer();
-        ItemStack itemInHand = event.getItemInHand();
-
-        // Check if the item in hand is valid and has metadata.
-        if (itemInHand.getType().isAir() || !itemInHand.hasItemMeta()) {
-            return;
-        }
-
-        var meta = itemInHand.getItemMeta();
-
-        // Check if the item has the custom chest key.
-        if (!meta.getPersistentDataContainer().has(Rebus.chestManager().getChestKey())) {
+        // Check if the block location is already occupied by an unlocking chest.
+        // This applies to every block, since in virtual mode the chest only exists on the clients.
+        var chestManager = Rebus.chestManager();
+        if (chestManager.getRegistry().isOccupied(event.getBlock())) {
+            event.setCancelled(true);
+            Rebus.Instance.sendLocalizedMsg(event.getPlayer(), "Chests.LocationOccupied");
             return;
         }
 
-        // Retrieve the chest key and corresponding chest object.
-        String key = meta.getPersistentDataContainer().get(Rebus.chestManager().getChestKey(), PersistentDataType.STRING);
-        RebusChest chest = Rebus.chestManager().getByKey(key);
+        // Retrieve the chest of the item in hand. Blocks of other materials are rejected without reading any item data.
+        ItemStack itemInHand = event.getItemInHand();
+        RebusChest chest = chestManager.getByItem(itemInHand);
         if (chest == null) {
             return;
         }
 
+        Player player = event.getPlayer();
         // Cancel the event to prevent the block from being placed normally.
         event.setCancelled(true);
 
-        // Check if the block location is already occupied by an unlocking chest.
-        if (Rebus.chestManager().chestsUnderUnlocking.contains(event.getBlock().getLocation())) {
-            Rebus.Instance.sendLocalizedMsg(player, "Chest.LocationOccupied");
+        // Sneaking players with the bulk open permission open the whole stack in their hand at once.
+        if (player.isSneaking() && player.hasPermission("rebus.bulkopen")) {
+            Rebus.chestManager().bulkOpen(player, chest, itemInHand.getAmount(), event.getHand());
             return;
         }
 
         // Check if the player is already unlocking a chest.
-        if (Rebus.chestManager().playersUnlocking.contains(player.getUniqueId())) {
+        if (Rebus.chestManager().getRegistry().isUnlocking(player.getUniqueId())) {
             Rebus.Instance.sendLocalizedMsg(player, "Chests.AlreadyOpening");
             return;
         }
@@ -78,32 +79,69 @@ public class BlockEventListener implements Listener {
             return;
         }
 
-        // Check if the chest is on cooldown for the player.
-        long remainingTime = Rebus.database().getCooldown(player.getUniqueId(), ECooldownType.OPEN, chest.getKey());
-        if (remainingTime > 0 && !player.hasPermission("rebus.bypass.cooldown")) {
-            Rebus.Instance.sendLocalizedMsg(player, "Chests.Cooldown", Map.of("time", TimeUtil.formatDuration(player, remainingTime)));
+        // The cooldown bypass does not need the database at all.
+        final Block block = event.getBlock();
+        final ItemStack item = itemInHand.clone();
+        if (player.hasPermission("rebus.bypass.cooldown")) {
+            Rebus.chestManager().handlePlaceChest(player, chest, item, block);
             return;
         }
 
-        // Handle the placement of the chest.
-        Rebus.chestManager().handlePlaceChest(player, chest, itemInHand, event.getBlock());
+        // Check if the chest is on cooldown for the player without blocking the main thread.
+        DatabaseExecutor.callback(Rebus.database().getCooldownAsync(player.getUniqueId(), ECooldownType.OPEN, chest.getKey()), remainingTime -> {
+            if (!player.isOnline()) {
+                return;
+            }
+
+            if (remainingTime > 0) {
+                Rebus.Instance.sendLocalizedMsg(player, "Chests.Cooldown", Map.of("time", TimeUtil.formatDuration(player, remainingTime)));
+                return;
+            }
+
+            // Validate the state again, since it may have changed while the cooldown was being looked up.
+            var registry = Rebus.chestManager().getRegistry();
+            if (registry.isUnlocking(player.getUniqueId())) {
+                Rebus.Instance.sendLocalizedMsg(player, "Chests.AlreadyOpening");
+                return;
+            }
+
+            // The placement was cancelled, so another block may have been placed there since.
+            if (registry.isOccupied(block) || !(block.getType().isAir() || block.isReplaceable())) {
+                Rebus.Instance.sendLocalizedMsg(player, "Chests.LocationOccupied");
+                return;
+            }
+
+            if (!isInReach(player, block)) {
+                Rebus.Instance.sendLocalizedMsg(player, "Chests.OutOfReach");
+                return;
+            }
+
+            if (!player.getInventory().containsAtLeast(item, 1)) {
+                Rebus.Instance.sendLocalizedMsg(player, "Chests.NoChestItems", Map.of("chest", chest.getName()));
+                return;
+            }
+
+            // Handle the placement of the chest.
+            Rebus.chestManager().handlePlaceChest(player, chest, item, block);
+        }, () -> {
+            if (player.isOnline())
+                Rebus.Instance.sendLocalizedMsg(player, "Commands.UnknownError");
+        });
     }
 
     /**
-     * Handles the BlockBreakEvent, preventing the breaking of blocks that are under unlocking.
+     * Checks if a block is in the same world as the player and within their block interaction range.
      *
-     * @param event The BlockBreakEvent triggered when a player breaks a block.
+     * @param player The player.
+     * @param block  The block.
+     * @return True if the player can still reach the block, false otherwise.
      */
-    @EventHandler
-    public void onBlockBreak(BlockBreakEvent event) {
-        // Check if the event is already cancelled.
-        if (event.isCancelled()) {
-            return;
-        }
+    private static boolean isInReach(Player player, Block block) {
+        if (!player.getWorld().equals(block.getWorld()))
+            return false;
 
-        // Cancel the event if the block is under unlocking.
-        if (Rebus.chestManager().chestsUnderUnlocking.contains(event.getBlock().getLocation())) {
-            event.setCancelled(true);
-        }
+        var attribute = player.getAttribute(Attribute.BLOCK_INTERACTION_RANGE);
+        double range = (attribute == null ? DEFAULT_REACH : attribute.getValue()) + REACH_TOLERANCE;
+        return player.getEyeLocation().distanceSquared(block.getLocation().toCenterLocation()) <= range * range;
     }
-}
\ No newline at end of file
+}
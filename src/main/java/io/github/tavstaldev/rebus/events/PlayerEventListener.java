@@ -1,19 +1,27 @@
 package io.github.tavstaldev.rebus.events;
 
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
 import io.github.tavstaldev.rebus.Rebus;
+import io.github.tavstaldev.rebus.database.DatabaseExecutor;
 import io.github.tavstaldev.rebus.managers.PlayerCacheManager;
 import io.github.tavstaldev.rebus.models.PlayerCache;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Handles player-related events such as joining, quitting, and interacting with blocks.
+ * Handles player-related events such as joining and quitting.
  */
 public class PlayerEventListener implements Listener {
+    private static final PluginLogger _logger = Rebus.logger().withModule(PlayerEventListener.class);
 
     /**
      * Initializes the event listener by registering it with the Bukkit plugin manager.
@@ -22,6 +30,52 @@ public class PlayerEventListener implements Listener {
         Bukkit.getServer().getPluginManager().registerEvents(new PlayerEventListener(), Rebus.Instance);
     }
 
+    /**
+     * Loads the cooldowns of every online player, e.g. after the plugin has been enabled or reloaded while players are online.
+     */
+    public static void preloadOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            UUID playerId = player.getUniqueId();
+            DatabaseExecutor.run(() -> Rebus.database().loadPlayer(playerId));
+        }
+    }
+
+    /**
+     * Handles the AsyncPlayerPreLoginEvent, loading the player's cooldowns before they join.
+     * The load runs on the database thread, so it is ordered after any pending work of a previous session.
+     *
+     * @param event The AsyncPlayerPreLoginEvent triggered while a player is logging in.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        UUID playerId = event.getUniqueId();
+        try {
+            DatabaseExecutor.run(() -> Rebus.database().loadPlayer(playerId)).get(5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            // The cooldowns are loaded on first use instead.
+            _logger.warn(String.format("Failed to preload cooldowns of %s: %s", event.getName(), ex.getMessage()));
+        }
+    }
+
+    /**
+     * Handles the PlayerLoginEvent, releasing the preloaded cooldowns if the login was denied after the pre-login.
+     *
+     * @param event The PlayerLoginEvent triggered when a player logs in.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() == PlayerLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        UUID playerId = event.getPlayer().getUniqueId();
+        DatabaseExecutor.run(() -> Rebus.database().unloadPlayer(playerId));
+    }
+
     /**
      * Handles the PlayerJoinEvent, creating and adding a PlayerCache for the joining player.
      *
@@ -35,30 +89,17 @@ public class PlayerEventListener implements Listener {
     }
 
     /**
-     * Handles the PlayerQuitEvent, removing the PlayerCache for the quitting player.
+     * Handles the PlayerQuitEvent, removing the PlayerCache and the cached cooldowns of the quitting player.
      *
      * @param event The PlayerQuitEvent triggered when a player leaves the server.
      */
     @EventHandler
     public void onPlayerQuit(org.bukkit.event.player.PlayerQuitEvent event) {
         Player player = event.getPlayer();
-        PlayerCacheManager.remove(player.getUniqueId());
-    }
-
-    /**
-     * Handles the PlayerInteractEvent, canceling interactions with blocks that are under unlocking.
-     *
-     * @param event The PlayerInteractEvent triggered when a player interacts with a block.
-     */
-    @EventHandler
-    public void onInteract(PlayerInteractEvent event) {
-        var clickedBlock = event.getClickedBlock();
-        if (clickedBlock == null) {
-            return;
-        }
-
-        if (Rebus.chestManager().chestsUnderUnlocking.contains(clickedBlock.getLocation())) {
-            event.setCancelled(true);
-        }
+        UUID playerId = player.getUniqueId();
+        PlayerCacheManager.remove(playerId);
+        // Finish the chest openings of the player, so the temporary block is removed and the reward is not lost.
+        Rebus.chestManager().cancelOpenings(player);
+        DatabaseExecutor.run(() -> Rebus.database().unloadPlayer(playerId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package io.github.tavstaldev.rebus.events;
+
+import io.github.tavstaldev.rebus.Rebus;
+import io.github.tavstaldev.rebus.models.ChestOpening;
+import io.github.tavstaldev.rebus.models.OpeningRegistry;
+import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+import java.util.List;
+
+/**
+ * Protects the chests under unlocking from being interacted with, broken, moved or blown up.
+ * <p>
+ * The listener is only registered while there are openings in progress,
+ * so an idle server does not run any of its handlers.
+ * </p>
+ */
+public class ProtectionListener implements Listener {
+    // The registry of the openings in progress.
+    private final OpeningRegistry _registry;
+
+    // Whether the listener is currently registered.
+    private boolean _registered;
+
+    /**
+     * Constructs a ProtectionListener instance.
+     *
+     * @param registry The registry of the openings to protect.
+     */
+    public ProtectionListener(OpeningRegistry registry) {
+        _registry = registry;
+    }
+
+    /**
+     * Registers the listener with the Bukkit plugin manager, unless it is already registered.
+     */
+    public void register() {
+        if (_registered)
+            return;
+
+        Bukkit.getServer().getPluginManager().registerEvents(this, Rebus.Instance);
+        _registered = true;
+    }
+
+    /**
+     * Unregisters the listener, unless it is not registered.
+     */
+    public void unregister() {
+        if (!_registered)
+            return;
+
+        HandlerList.unregisterAll(this);
+        _registered = false;
+    }
+
+    /**
+     * Handles the PlayerInteractEvent, canceling interactions with blocks that are under unlocking.
+     *
+     * @param event The PlayerInteractEvent triggered when a player interacts with a block.
+     */
+    @EventHandler
+    public void onInteract(PlayerInteractEvent event) {
+        var clickedBlock = event.getClickedBlock();
+        if (clickedBlock == null) {
+            return;
+        }
+
+        if (_registry.isOccupied(clickedBlock)) {
+            event.setCancelled(true);
+            resendVirtualChest(event.getPlayer(), clickedBlock);
+        }
+    }
+
+    /**
+     * Handles the BlockBreakEvent, preventing the breaking of blocks that are under unlocking.
+     *
+     * @param event The BlockBreakEvent triggered when a player breaks a block.
+     */
+    @EventHandler(ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        if (_registry.isOccupied(event.getBlock())) {
+            event.setCancelled(true);
+            resendVirtualChest(event.getPlayer(), event.getBlock());
+        }
+    }
+
+    /**
+     * Handles the BlockPistonExtendEvent, preventing pistons from pushing blocks that are under unlocking.
+     *
+     * @param event The BlockPistonExtendEvent triggered when a piston extends.
+     */
+    @EventHandler(ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        if (isAnyOccupied(event.getBlocks())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Handles the BlockPistonRetractEvent, preventing sticky pistons from pulling blocks that are under unlocking.
+     *
+     * @param event The BlockPistonRetractEvent triggered when a piston retracts.
+     */
+    @EventHandler(ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        if (isAnyOccupied(event.getBlocks())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Handles the EntityExplodeEvent, keeping blocks that are under unlocking out of the explosion.
+     *
+     * @param event The EntityExplodeEvent triggered when an entity explodes.
+     */
+    @EventHandler(ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        event.blockList().removeIf(_registry::isOccupied);
+    }
+
+    /**
+     * Handles the BlockExplodeEvent, keeping blocks that are under unlocking out of the explosion.
+     *
+     * @param event The BlockExplodeEvent triggered when a block explodes.
+     */
+    @EventHandler(ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        event.blockList().removeIf(_registry::isOccupied);
+    }
+
+    /**
+     * Sends the chest of a virtual opening to a player again on the next tick.
+     * The server answers every cancelled click with the real block, which is air in virtual mode,
+     * so the chest would disappear for the player who clicked it.
+     *
+     * @param player The player who clicked the block.
+     * @param block  The block of the opening.
+     */
+    private void resendVirtualChest(Player player, Block block) {
+        ChestOpening opening = _registry.getOpening(block);
+        if (opening == null || !opening.isVirtual())
+            return;
+
+        Bukkit.getScheduler().runTask(Rebus.Instance, () -> {
+            // The chest may have been removed in the meantime, then the real block must stay.
+            BlockData blockData = opening.getBlockData();
+            if (blockData == null || !player.isOnline() || _registry.getOpening(block) != opening)
+                return;
+            player.sendBlockChange(opening.getLocation(), blockData);
+        });
+    }
+
+    /**
+     * Checks if any of the given blocks is under unlocking.
+     *
+     * @param blocks The blocks to check.
+     * @return True if at least one block is under unlocking, false otherwise.
+     */
+    private boolean isAnyOccupied(List<Block> blocks) {
+        for (Block block : blocks) {
+            if (_registry.isOccupied(block))
+                return true;
+        }
+        return false;
+    }
+}
@@ -8,6 +8,7 @@ import io.github.tavstaldev.minecorelib.utils.ChatUtils;
 import io.github.tavstaldev.minecorelib.utils.GuiUtils;
 import io.github.tavstaldev.rebus.Rebus;
 import io.github.tavstaldev.rebus.RebusConfig;
+import io.github.tavstaldev.rebus.database.DatabaseExecutor;
 import io.github.tavstaldev.rebus.managers.PlayerCacheManager;
 import io.github.tavstaldev.rebus.models.ECooldownType;
 import io.github.tavstaldev.rebus.models.RebusChest;
@@ -17,10 +18,9 @@ import net.kyori.adventure.text.Component;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Represents the main GUI for the Rebus plugin, providing methods to create, open, close, and refresh the GUI.
@@ -32,6 +32,22 @@ public class MainGUI {
     // Translator instance for localizing messages and GUI elements.
     private static final PluginTranslator _translator = Rebus.Instance.getTranslator();
 
+    // Players whose purchase is waiting for the cooldown lookup. Only accessed from the main thread.
+    private static final Set<UUID> _pendingPurchases = new HashSet<>();
+
+    // Rendered chest buttons, shared by every player who sees the same text. Only accessed from the main thread.
+    private static final Map<ButtonKey, SGButton> _buttons = new HashMap<>();
+
+    /**
+     * Identifies a rendered chest button by the localized text it shows, so the cache follows whatever locale
+     * the translator picks for a player.
+     *
+     * @param chest The key of the chest.
+     * @param lines The localized lore lines of the button: price, buy or permission hint, and preview hint.
+     */
+    private record ButtonKey(String chest, List<String> lines) {
+    }
+
     /**
      * Creates the main GUI for the specified player.
      *
@@ -77,7 +93,6 @@ public class MainGUI {
         var playerCache = PlayerCacheManager.get(player.getUniqueId());
         // Mark the GUI as opened and display it to the player.
         playerCache.setGuiOpened(true);
-        player.openInventory(playerCache.getMainMenu().getInventory());
         refresh(player);
     }
 
@@ -92,6 +107,195 @@ public class MainGUI {
         playerCache.setGuiOpened(false);
     }
 
+    /**
+     * Completes a chest purchase once the player's cooldowns have been looked up.
+     * The inventory and balance checks are repeated, because they may have changed while the lookup was running.
+     *
+     * @param player The player buying the chest.
+     * @param chest The chest being bought.
+     * @param openCooldown The remaining open cooldown in seconds.
+     * @param buyCooldown The remaining buy cooldown in seconds.
+     */
+    private static void purchase(@NotNull Player player, @NotNull RebusChest chest, long openCooldown, long buyCooldown) {
+        if (!player.isOnline()) {
+            return;
+        }
+
+        // Check if the chest is on cooldown for the player.
+        if (openCooldown > 0 && !player.hasPermission("rebus.bypass.cooldown")) {
+            Rebus.Instance.sendLocalizedMsg(player, "Chests.Cooldown", Map.of("time", TimeUtil.formatDuration(player, openCooldown)));
+            return;
+        }
+
+        // Check if the player is on a buy cooldown for the chest.
+        if (buyCooldown > 0 && !player.hasPermission("rebus.bypass.buycooldown")) {
+            Rebus.Instance.sendLocalizedMsg(player, "Chests.BuyCooldown", Map.of("time", TimeUtil.formatDuration(player, buyCooldown)));
+            return;
+        }
+
+        // Check if the player's inventory still has space.
+        if (player.getInventory().firstEmpty() == -1) {
+            Rebus.Instance.sendLocalizedMsg(player, "Chests.CannotBuy");
+            return;
+        }
+
+        // Check if the player still has enough balance to purchase the chest.
+        var balance = EconomyUtils.getBalance(player);
+        if (balance < chest.getCost()) {
+            Rebus.Instance.sendLocalizedMsg(player, "General.NotEnoughMoney", Map.of("balance", balance));
+            return;
+        }
+
+        // Deduct the cost and give the chest to the player.
+        if (chest.getCost() > 0)
+            EconomyUtils.withdraw(player, chest.getCost());
+        if (chest.getBuyCooldown() > 0)
+            Rebus.database().addCooldownAsync(player.getUniqueId(), ECooldownType.BUY, chest.getKey(), chest.getBuyCooldown());
+        chest.give(player, 1);
+        Rebus.Instance.sendLocalizedMsg(player, "General.PurchaseSuccessful");
+    }
+
+    /**
+     * Discards the cached chest buttons and renders them again for the default locale.
+     * Buttons for other locales are rendered the first time a player using them opens the menu.
+     * Called whenever the chests are (re)loaded.
+     */
+    public static void rebuildButtons() {
+        _buttons.clear();
+        for (RebusChest chest : Rebus.chestManager().getChestsBySlot().values()) {
+            for (boolean permitted : new boolean[] { true, false }) {
+                ButtonKey key = createKey(null, chest, permitted);
+                _buttons.put(key, createButton(chest, key));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the cached button of a chest for a player, rendering it if it is not cached yet.
+     *
+     * @param player The player viewing the menu.
+     * @param chest  The chest the button belongs to.
+     * @return The SGButton of the chest.
+     */
+    private static SGButton getButton(@NotNull Player player, @NotNull RebusChest chest) {
+        ButtonKey key = createKey(player, chest, player.hasPermission(chest.getPermission()));
+        return _buttons.computeIfAbsent(key, k -> createButton(chest, k));
+    }
+
+    /**
+     * Localizes the lore lines of a chest button, which identify the button in the cache.
+     * Only the translated strings are looked up, the item itself is not built.
+     *
+     * @param player    A player to localize for, or null to use the default locale.
+     * @param chest     The chest the button belongs to.
+     * @param permitted Whether the viewer has the permission of the chest.
+     * @return The key of the button.
+     */
+    private static ButtonKey createKey(@Nullable Player player, @NotNull RebusChest chest, boolean permitted) {
+        return new ButtonKey(chest.getKey(), List.of(
+                localize(player, "GUI.Price", Map.of("price", chest.getCost())),
+                localize(player, permitted ? "GUI.ClickToBuy" : "GUI.NoPermission", Map.of()),
+                localize(player, "GUI.ClickToPreview", Map.of())));
+    }
+
+    /**
+     * Renders the button of a chest. The button does not depend on the player, only on the text of its key,
+     * so it can be shared by every player who sees the same text.
+     *
+     * @param chest The chest the button belongs to.
+     * @param key   The key holding the localized lore lines of the button.
+     * @return The rendered SGButton.
+     */
+    private static SGButton createButton(@NotNull RebusChest chest, @NotNull ButtonKey key) {
+        List<String> lines = key.lines();
+        List<Component> lore = new ArrayList<>();
+        lore.add(ChatUtils.translateColors(lines.get(0), true));
+        for (String line : chest.getDescription()) {
+            lore.add(ChatUtils.translateColors(line, true));
+        }
+        lore.add(Component.text(""));
+        lore.add(ChatUtils.translateColors(lines.get(1), true));
+        lore.add(ChatUtils.translateColors(lines.get(2), true));
+
+        // Create an item representing the chest.
+        ItemStack item = GuiUtils.createItem(
+                Rebus.Instance,
+                chest.getMaterial(),
+                chest.getName(),
+                lore
+        );
+
+        return new SGButton(item).withListener(event -> {
+            if (event.getWhoClicked() instanceof Player clicker) {
+                onChestClick(clicker, chest, event.isRightClick());
+            }
+        });
+    }
+
+    /**
+     * Handles a click on a chest button: previews the chest on right click, or starts buying it otherwise.
+     *
+     * @param player     The player who clicked.
+     * @param chest      The chest that was clicked.
+     * @param rightClick Whether it was a right click.
+     */
+    private static void onChestClick(@NotNull Player player, @NotNull RebusChest chest, boolean rightClick) {
+        if (rightClick) {
+            PreviewGUI.open(player, chest);
+            return;
+        }
+
+        // Check if the player has the required permission.
+        if (!player.hasPermission(chest.getPermission())) {
+            Rebus.Instance.sendLocalizedMsg(player, "General.NoPermission");
+            return;
+        }
+
+        // Check if the player's inventory has space.
+        if (player.getInventory().firstEmpty() == -1) {
+            Rebus.Instance.sendLocalizedMsg(player, "Chests.CannotBuy");
+            return;
+        }
+
+        // Check if the player has enough balance to purchase the chest.
+        var balance =  EconomyUtils.getBalance(player);
+        if (balance < chest.getCost()) {
+            Rebus.Instance.sendLocalizedMsg(player, "General.NotEnoughMoney", Map.of("balance", balance));
+            return;
+        }
+
+        // Ignore repeated clicks while the previous purchase is still being validated.
+        var playerId = player.getUniqueId();
+        if (!_pendingPurchases.add(playerId)) {
+            return;
+        }
+
+        // Check the open and buy cooldowns without blocking the main thread.
+        var openCooldown = Rebus.database().getCooldownAsync(playerId, ECooldownType.OPEN, chest.getKey());
+        var buyCooldown = Rebus.database().getCooldownAsync(playerId, ECooldownType.BUY, chest.getKey());
+        DatabaseExecutor.callback(openCooldown.thenCombine(buyCooldown, (open, buy) -> new long[] { open, buy }), cooldowns -> {
+            _pendingPurchases.remove(playerId);
+            purchase(player, chest, cooldowns[0], cooldowns[1]);
+        }, () -> {
+            // Release the player on failure too, otherwise every later click would be ignored.
+            _pendingPurchases.remove(playerId);
+            if (player.isOnline())
+                Rebus.Instance.sendLocalizedMsg(player, "Commands.UnknownError");
+        });
+    }
+
+    /**
+     * Localizes a message for a player, or for the default locale if no player is given.
+     *
+     * @param player     The player to localize for, or null.
+     * @param key        The localization key.
+     * @param parameters The parameters of the message.
+     * @return The localized message.
+     */
+    static String localize(@Nullable Player player, String key, Map<String, Object> parameters) {
+        return player == null ? _translator.localize(key, parameters) : _translator.localize(player, key, parameters);
+    }
+
     /**
      * Refreshes the main GUI for the specified player, updating its contents.
      *
@@ -99,92 +303,18 @@ public class MainGUI {
      */
     public static void refresh(@NotNull Player player) {
         try {
-            var playerId = player.getUniqueId();
-            var playerCache = PlayerCacheManager.get(playerId);
-            var menu = playerCache.getMainMenu();
-
-            // Populate the GUI with daily quests (chests).
-            var chests = Rebus.chestManager().getChests();
-            for (RebusChest chest : chests) {
-                List<Component> lore = new ArrayList<>();
-                String price = Rebus.translator().localize("GUI.Price", Map.of("price", chest.getCost()));
-                lore.add(ChatUtils.translateColors(price, true));
-                for (String line : chest.getDescription()) {
-                    lore.add(ChatUtils.translateColors(line, true));
-                }
-                lore.add(Component.text(""));
-                if (!player.hasPermission(chest.getPermission())) {
-                    lore.add(ChatUtils.translateColors(Rebus.translator().localize("GUI.NoPermission"), true));
-                }
-                else {
-                    lore.add(ChatUtils.translateColors(Rebus.translator().localize("GUI.ClickToBuy"), true));
-                }
-                lore.add(ChatUtils.translateColors(Rebus.translator().localize("GUI.ClickToPreview"), true));
-
-                // Create an item representing the chest and add it to the GUI.
-                ItemStack item = GuiUtils.createItem(
-                        Rebus.Instance,
-                        chest.getMaterial(),
-                        chest.getName(),
-                        lore
-                );
-
-                SGButton chestButton = new SGButton(item).withListener(event -> {
-                    if (event.isRightClick()) {
-                        PreviewGUI.open(player, chest);
-                        return;
-                    }
-
-                    // Check if the player has the required permission.
-                    if (!player.hasPermission(chest.getPermission())) {
-                        Rebus.Instance.sendLocalizedMsg(player, "General.NoPermission");
-                        return;
-                    }
-
-                    // Check if the player's inventory has space.
-                    if (player.getInventory().firstEmpty() == -1) {
-                        Rebus.Instance.sendLocalizedMsg(player, "Chests.CannotBuy");
-                        return;
-                    }
-
-                    // Check if the player has enough balance to purchase the chest.
-                    var balance =  EconomyUtils.getBalance(player);
-                    if (balance < chest.getCost()) {
-                        Rebus.Instance.sendLocalizedMsg(player, "General.NotEnoughMoney", Map.of("balance", balance));
-                        return;
-                    }
-
-                    // Check if the chest is on cooldown for the player.
-                    long remainingTime = Rebus.database().getCooldown(playerId, ECooldownType.OPEN, chest.getKey());
-                    if (remainingTime > 0 && !player.hasPermission("rebus.bypass.cooldown")) {
-                        Rebus.Instance.sendLocalizedMsg(player, "Chests.Cooldown", Map.of("time", TimeUtil.formatDuration(player, remainingTime)));
-                        return;
-                    }
-
-                    // Check if the player is on a buy cooldown for the chest.
-                    remainingTime = Rebus.database().getCooldown(playerId, ECooldownType.BUY, chest.getKey());
-                    if (remainingTime > 0 && !player.hasPermission("rebus.bypass.buycooldown")) {
-                        Rebus.Instance.sendLocalizedMsg(player, "Chests.BuyCooldown", Map.of("time", TimeUtil.formatDuration(player, remainingTime)));
-                        return;
-                    }
-
-                    // Deduct the cost and give the chest to the player.
-                    if (chest.getCost() > 0)
-                        EconomyUtils.withdraw(player, chest.getCost());
-                    if (chest.getBuyCooldown() > 0)
-                        Rebus.database().addCooldown(playerId, ECooldownType.BUY, chest.getKey(), chest.getBuyCooldown());
-                    chest.give(player, 1);
-                    Rebus.Instance.sendLocalizedMsg(player, "General.PurchaseSuccessful");
-                });
-
-                menu.setButton(0, chest.getSlot(), chestButton);
+            var menu = PlayerCacheManager.get(player.getUniqueId()).getMainMenu();
+
+            // Place the cached chest buttons, so nothing is rendered unless the locale or permission is new.
+            for (RebusChest chest : Rebus.chestManager().getChestsBySlot().values()) {
+                menu.setButton(0, chest.getSlot(), getButton(player, chest));
             }
-            // Open the updated GUI for the player.
-            player.openInventory(menu.getInventory());
+            // Show the updated GUI, only sending the changed slots if the player is already looking at it.
+            MenuSync.show(player, menu);
         } catch (Exception ex) {
             // Log an error if refreshing the GUI fails.
             _logger.error("An error occurred while refreshing the main GUI.");
             _logger.error(ex);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package io.github.tavstaldev.rebus.gui;
+
+import com.samjakob.spigui.menu.SGMenu;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Shows menus to players, updating an already open menu in place instead of opening its window again.
+ * Reopening a window sends the whole window and its contents to the client and fires close and open events,
+ * while an in-place update only sends the slots that changed.
+ */
+final class MenuSync {
+    private MenuSync() {
+    }
+
+    /**
+     * Shows a menu to a player. If the player is already looking at the menu, only the changed slots are updated,
+     * otherwise the menu is opened.
+     *
+     * @param player The player to show the menu to.
+     * @param menu   The menu to show.
+     */
+    static void show(@NotNull Player player, @NotNull SGMenu menu) {
+        Inventory rendered = menu.getInventory();
+        Inventory top = player.getOpenInventory().getTopInventory();
+        if (top.getHolder(false) != menu || top.getSize() != rendered.getSize()) {
+            player.openInventory(rendered);
+            return;
+        }
+
+        // Only touch the slots whose item has changed, so only those are sent to the client.
+        for (int slot = 0; slot < rendered.getSize(); slot++) {
+            ItemStack item = rendered.getItem(slot);
+            if (!isSame(top.getItem(slot), item))
+                top.setItem(slot, item);
+        }
+    }
+
+    /**
+     * Checks if two slot contents are the same, treating empty slots and air as equal.
+     *
+     * @param first  The first item.
+     * @param second The second item.
+     * @return True if both slots show the same item, false otherwise.
+     */
+    private static boolean isSame(@Nullable ItemStack first, @Nullable ItemStack second) {
+        boolean firstEmpty = first == null || first.isEmpty();
+        boolean secondEmpty = second == null || second.isEmpty();
+        if (firstEmpty || secondEmpty)
+            return firstEmpty == secondEmpty;
+
+        return first.equals(second);
+    }
+}
@@ -4,23 +4,49 @@ import com.samjakob.spigui.buttons.SGButton;
 import com.samjakob.spigui.menu.SGMenu;
 import io.github.tavstaldev.minecorelib.core.GuiDupeDetector;
 import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.minecorelib.utils.ChatUtils;
 import io.github.tavstaldev.minecorelib.utils.GuiUtils;
 import io.github.tavstaldev.rebus.Rebus;
 import io.github.tavstaldev.rebus.managers.PlayerCacheManager;
 import io.github.tavstaldev.rebus.models.PlayerCache;
 import io.github.tavstaldev.rebus.models.RebusChest;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Map;
+import java.util.*;
 
 public class PreviewGUI {
     private static final PluginLogger _logger = Rebus.logger().withModule(PreviewGUI.class);
+    // Number of reward items shown on a single page.
+    private static final int PAGE_SIZE = 28;
+    // Prebuilt preview pages, keyed by chest and the localized text they use. Only accessed from the main thread.
+    private static final Map<PageKey, List<PreviewPage>> _pages = new HashMap<>();
+
+    /**
+     * Identifies the prebuilt preview pages of a chest by the localized templates they are rendered from,
+     * so the cache follows whatever locale the translator picks for a player.
+     *
+     * @param chest      The key of the chest.
+     * @param dropChance The localized drop chance line, before the chance is filled in.
+     * @param page       The localized page indicator, before the page number is filled in.
+     */
+    private record PageKey(String chest, String dropChance, String page) {
+    }
+
+    /**
+     * A prebuilt preview page.
+     *
+     * @param buttons   The buttons of the reward items on the page, at most PAGE_SIZE.
+     * @param indicator The page indicator button showing the number of the page.
+     */
+    private record PreviewPage(SGButton[] buttons, SGButton indicator) {
+    }
     private static final Integer[] SlotPlaceholders = {
             0,  1,  2,  3,  4,  5,  6,  7,  8,
             9,                              17,
@@ -75,8 +101,7 @@ public class PreviewGUI {
                     GuiUtils.createItem(Rebus.Instance, Material.ARROW, Rebus.Instance.localize(player, "GUI.NextPage")))
                     .withListener((InventoryClickEvent event) -> {
                         PlayerCache cache = PlayerCacheManager.get(player.getUniqueId());
-                        int maxPage = 1 + (cache.getPreviewChest().getRewards().size() / 28);
-                        if (cache.getPreviewPage() + 1 > maxPage)
+                        if (cache.getPreviewPage() + 1 > getPageCount(player, cache.getPreviewChest()))
                             return;
                         cache.setPreviewPage(cache.getPreviewPage() + 1);
                         refresh(player);
@@ -91,6 +116,124 @@ public class PreviewGUI {
         }
     }
 
+    /**
+     * Discards the prebuilt preview pages and builds them again for every chest in the default locale.
+     * Pages for other locales are built the first time a player using them opens a preview.
+     * Called whenever the chests are (re)loaded, so turning a page only places existing buttons.
+     */
+    public static void rebuildPages() {
+        _pages.clear();
+        for (RebusChest chest : Rebus.chestManager().getChestsBySlot().values()) {
+            _pages.put(createKey(null, chest), buildPages(null, chest));
+        }
+    }
+
+    /**
+     * Localizes the templates the preview pages of a chest are rendered from, which identify the pages in the cache.
+     *
+     * @param player A player to localize for, or null to use the default locale.
+     * @param chest  The chest.
+     * @return The key of the pages.
+     */
+    private static PageKey createKey(@Nullable Player player, @NotNull RebusChest chest) {
+        return new PageKey(chest.getKey(),
+                MainGUI.localize(player, "GUI.DropChance", Map.of()),
+                MainGUI.localize(player, "GUI.Page", Map.of()));
+    }
+
+    /**
+     * Builds the preview pages of a chest. The items keep the order their rewards are defined in,
+     * are tagged against duplication and show their chance of being dropped, taken from the odds of the chest.
+     *
+     * @param player A player using the locale to render, or null to use the default locale.
+     * @param chest  The chest to build the pages for.
+     * @return The pages of the chest, at least one, each holding at most PAGE_SIZE buttons.
+     */
+    private static List<PreviewPage> buildPages(@Nullable Player player, @NotNull RebusChest chest) {
+        var odds = chest.getOdds();
+        List<SGButton> buttons = new ArrayList<>();
+        for (ItemStack item : chest.getPossibleItems()) {
+            buttons.add(new SGButton(createPreviewItem(player, item, odds.getProbability(item) * 100.0)));
+        }
+
+        // A chest without items still has one empty page.
+        List<PreviewPage> pages = new ArrayList<>();
+        for (int i = 0; i == 0 || i < buttons.size(); i += PAGE_SIZE) {
+            SGButton[] page = buttons.subList(i, Math.min(i + PAGE_SIZE, buttons.size())).toArray(new SGButton[0]);
+            pages.add(new PreviewPage(page, createPageIndicator(player, pages.size() + 1)));
+        }
+        return List.copyOf(pages);
+    }
+
+    /**
+     * Creates the page indicator button of a preview page.
+     *
+     * @param player A player using the locale to render, or null to use the default locale.
+     * @param page   The page number, starting from 1.
+     * @return A new SGButton showing the page number.
+     */
+    private static SGButton createPageIndicator(@Nullable Player player, int page) {
+        return new SGButton(GuiUtils.createItem(Rebus.Instance, Material.PAPER,
+                MainGUI.localize(player, "GUI.Page", Map.of("page", String.valueOf(page)))));
+    }
+
+    /**
+     * Creates the item shown for a reward item in the preview, tagged against duplication and with its drop chance in the lore.
+     *
+     * @param player A player using the locale to render, or null to use the default locale.
+     * @param item   The reward item.
+     * @param chance The chance of the item being dropped, in percent.
+     * @return A new ItemStack for the preview.
+     */
+    private static ItemStack createPreviewItem(@Nullable Player player, @NotNull ItemStack item, double chance) {
+        ItemStack itemStack = item.clone();
+        var meta = itemStack.getItemMeta();
+        meta.getPersistentDataContainer().set(GuiDupeDetector.getDupeProtectedKey(), PersistentDataType.BOOLEAN, true);
+
+        List<Component> lore = meta.lore() == null ? new ArrayList<>() : new ArrayList<>(meta.lore());
+        lore.add(Component.text(""));
+        lore.add(ChatUtils.translateColors(MainGUI.localize(player, "GUI.DropChance", Map.of("chance", String.format(Locale.ROOT, "%.2f", chance))), true));
+        meta.lore(lore);
+
+        itemStack.setItemMeta(meta);
+        return itemStack;
+    }
+
+    /**
+     * Retrieves the preview pages of a chest for a player, building them if they are not cached yet.
+     *
+     * @param player The player viewing the preview.
+     * @param chest  The chest.
+     * @return The pages of the chest in the locale of the player.
+     */
+    private static List<PreviewPage> getPages(@NotNull Player player, @NotNull RebusChest chest) {
+        return _pages.computeIfAbsent(createKey(player, chest), key -> buildPages(player, chest));
+    }
+
+    /**
+     * Gets the number of preview pages of a chest.
+     *
+     * @param player The player viewing the preview.
+     * @param chest  The chest.
+     * @return The number of pages, at least 1.
+     */
+    private static int getPageCount(@NotNull Player player, @NotNull RebusChest chest) {
+        return getPages(player, chest).size();
+    }
+
+    /**
+     * Gets a preview page of a chest.
+     *
+     * @param player The player viewing the preview.
+     * @param chest  The chest.
+     * @param page   The page number, starting from 1. Numbers out of range are clamped to the first or last page.
+     * @return The prebuilt page.
+     */
+    private static PreviewPage getPage(@NotNull Player player, @NotNull RebusChest chest, int page) {
+        List<PreviewPage> pages = getPages(player, chest);
+        return pages.get(Math.max(0, Math.min(page, pages.size()) - 1));
+    }
+
     public static void open(@NotNull Player player, RebusChest chest) {
         PlayerCache cache = PlayerCacheManager.get(player.getUniqueId());
         // Show the GUI
@@ -98,8 +241,9 @@ public class PreviewGUI {
         cache.setGuiOpened(true);
         cache.setPreviewPage(1);
         cache.getPreviewMenu().setName(Rebus.Instance.localize(player, "GUI.PreviewTitle", Map.of("chest", chest.getName())));
-        player.openInventory(cache.getPreviewMenu().getInventory());
-        refresh(player);
+        // The title depends on the chest, so the window is always opened here instead of being updated in place.
+        if (render(player, cache))
+            player.openInventory(cache.getPreviewMenu().getInventory());
     }
 
     /**
@@ -119,40 +263,41 @@ public class PreviewGUI {
      * @param player The player for whom the GUI is being refreshed.
      */
     public static void refresh(@NotNull Player player) {
+        PlayerCache cache = PlayerCacheManager.get(player.getUniqueId());
+        // Only the changed slots are sent, since the player is already looking at the menu when paging.
+        if (render(player, cache))
+            MenuSync.show(player, cache.getPreviewMenu());
+    }
+
+    /**
+     * Places the buttons of the current preview page into the Preview GUI of the player.
+     *
+     * @param player The player viewing the GUI.
+     * @param cache  The cache of the player.
+     * @return True if the page was rendered, false if an error occurred.
+     */
+    private static boolean render(@NotNull Player player, @NotNull PlayerCache cache) {
         try {
-            PlayerCache cache =PlayerCacheManager.get(player.getUniqueId());
-            SGButton pageButton = new SGButton(
-                    GuiUtils.createItem(Rebus.Instance,
-                            Material.PAPER,
-                            Rebus.Instance.localize(player, "GUI.Page",
-                                    Map.of("page", String.valueOf(cache.getPreviewPage()))
-                            )
-                    )
-            );
-            cache.getPreviewMenu().setButton(0, 49, pageButton);
+            // Place the prebuilt indicator and buttons of the page, clearing the slots the page does not fill.
+            PreviewPage page = getPage(player, cache.getPreviewChest(), cache.getPreviewPage());
+            cache.getPreviewMenu().setButton(0, 49, page.indicator());
 
-            var rewards = new ArrayList<>(cache.getPreviewChest().getPossibleItems());
-            int page = cache.getPreviewPage();
-            for (int i = 0; i < 28; i++) {
-                int index = i + (page - 1) * 28;
+            SGButton[] buttons = page.buttons();
+            for (int i = 0; i < PAGE_SIZE; i++) {
                 int slot = i + 10 + (2 * (i / 7));
-                if (index >= rewards.size()) {
+                if (i >= buttons.length) {
                     cache.getPreviewMenu().removeButton(0, slot);
                     continue;
                 }
 
-                ItemStack itemStack = rewards.get(index).clone();
-                var meta = itemStack.getItemMeta();
-                meta.getPersistentDataContainer().set(GuiDupeDetector.getDupeProtectedKey(), PersistentDataType.BOOLEAN, true);
-                itemStack.setItemMeta(meta);
-
-                cache.getPreviewMenu().setButton(0, slot, new SGButton(itemStack));
+                cache.getPreviewMenu().setButton(0, slot, buttons[i]);
             }
-            player.openInventory(cache.getPreviewMenu().getInventory());
+            return true;
         }
         catch (Exception ex) {
             _logger.error("An error occurred while refreshing the Preview GUI.");
             _logger.error(ex);
+            return false;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package io.github.tavstaldev.rebus.managers;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * The pre-filter deciding whether an item is a chest item. It runs for every block placed on the server,
+ * so items of materials no chest uses are rejected before any of their data is read.
+ */
+public final class ChestItemFilter {
+    private ChestItemFilter() {}
+
+    /**
+     * Reads the key of the chest an item belongs to.
+     *
+     * @param item      The item to check.
+     * @param materials Materials used by at least one chest.
+     * @param chestKey  The namespaced key the chest key is stored under.
+     * @return The key of the chest, or null if the item is not a chest item.
+     */
+    public static @Nullable String getChestKey(@Nullable ItemStack item, Set<Material> materials, NamespacedKey chestKey) {
+        if (item == null || !materials.contains(item.getType()))
+            return null;
+
+        // Reads the data without cloning the item meta.
+        return item.getPersistentDataContainer().get(chestKey, PersistentDataType.STRING);
+    }
+}
@@ -5,15 +5,25 @@ import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.wrappers.BlockPosition;
 import io.github.tavstaldev.minecorelib.utils.TypeUtils;
 import io.github.tavstaldev.rebus.Rebus;
+import io.github.tavstaldev.rebus.database.DatabaseExecutor;
+import io.github.tavstaldev.rebus.events.ProtectionListener;
+import io.github.tavstaldev.rebus.gui.MainGUI;
+import io.github.tavstaldev.rebus.gui.PreviewGUI;
+import io.github.tavstaldev.rebus.models.ChestOpening;
+import io.github.tavstaldev.rebus.models.ECooldownType;
+import io.github.tavstaldev.rebus.models.OpeningRegistry;
 import io.github.tavstaldev.rebus.models.RebusChest;
-import io.github.tavstaldev.rebus.util.SoundUtils;
+import io.github.tavstaldev.rebus.tasks.ChestAnimationTask;
+import io.github.tavstaldev.rebus.util.TimeUtil;
+import net.kyori.adventure.sound.Sound;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Directional;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.Yaml;
 
@@ -44,43 +54,108 @@ public class ChestManager {
         return _chestKey;
     }
 
-    // Set of loaded chests.
-    private Set<RebusChest> chests;
+    // Sends the particles and sounds of the chests to nearby players.
+    private final EffectManager _effects = new EffectManager();
+
+    /**
+     * Retrieves the effect manager used to play the chest effects.
+     *
+     * @return The effect manager.
+     */
+    public EffectManager getEffects() {
+        return _effects;
+    }
+
+    /**
+     * The loaded items and chests together with their indexes. A snapshot is never modified,
+     * a reload builds a new one and swaps it in, so readers always see a complete and consistent state.
+     *
+     * @param items     Item IDs mapped to their ItemStacks.
+     * @param chests    The loaded chests.
+     * @param byKey     Chests keyed by their lowercase key.
+     * @param bySlot    Chests keyed by their slot in the main menu, in slot order.
+     * @param materials Materials used by at least one chest, so other blocks can be rejected without reading their data.
+     */
+    private record ChestSnapshot(Map<Integer, ItemStack> items, Set<RebusChest> chests, Map<String, RebusChest> byKey,
+                                 Map<Integer, RebusChest> bySlot, Set<Material> materials) {
+        private static final ChestSnapshot EMPTY = new ChestSnapshot(Map.of(), Set.of(), Map.of(), Map.of(), Set.of());
+    }
+
+    // The current snapshot, replaced as a whole on every load.
+    private volatile ChestSnapshot _snapshot = ChestSnapshot.EMPTY;
 
     /**
      * Retrieves the set of loaded chests.
      *
-     * @return A set of RebusChest objects.
+     * @return An unmodifiable set of RebusChest objects.
      */
     public Set<RebusChest> getChests() {
-        return chests;
+        return _snapshot.chests();
     }
 
-    // Map of item IDs to ItemStack objects.
-    private final HashMap<Integer, ItemStack> itemTable = new HashMap<>();
-
     /**
      * Retrieves the item table mapping item IDs to ItemStacks.
      *
-     * @return A HashMap of item IDs to ItemStack objects.
+     * @return An unmodifiable map of item IDs to ItemStack objects.
      */
-    public HashMap<Integer, ItemStack> getItemTable() {
-        return itemTable;
+    public Map<Integer, ItemStack> getItemTable() {
+        return _snapshot.items();
     }
 
-    // Set of players currently unlocking chests.
-    public final Set<UUID> playersUnlocking = new HashSet<>();
+    // Players currently unlocking chests and the blocks of the chests under unlocking.
+    private final OpeningRegistry _registry = new OpeningRegistry();
 
-    // Set of chest locations currently under unlocking.
-    public final Set<Location> chestsUnderUnlocking = new HashSet<>();
+    // Protects the chests under unlocking, registered only while there are openings in progress.
+    private final ProtectionListener _protection = new ProtectionListener(_registry);
+
+    /**
+     * Retrieves the registry of the chest openings in progress.
+     *
+     * @return The OpeningRegistry of this manager.
+     */
+    public OpeningRegistry getRegistry() {
+        return _registry;
+    }
+
+    // Players whose bulk open is waiting for the cooldown lookup. Only accessed from the main thread.
+    private final Set<UUID> _pendingBulkOpens = new HashSet<>();
+
+    // Chest openings in progress, advanced by the shared animation task.
+    private final List<ChestOpening> _openings = new ArrayList<>();
+
+    // The shared animation task, only running while there are openings in progress.
+    private ChestAnimationTask _animationTask;
+
+    //#region Animation timeline, in ticks since the chest was placed
+    private static final int TICK_PLACE = 1;
+    private static final int TICK_OPEN = 10;
+    private static final int PHASE_INTERVAL = 15;
+    private static final int TICK_CLOSE = TICK_OPEN + 3 * PHASE_INTERVAL;
+    private static final int TICK_COMPLETE = TICK_CLOSE + 10;
+    private static final int COMPLETION_FOLLOW_UP = 5;
+    //#endregion
+
+    /**
+     * Loads chests and items from configuration and resource files, then swaps in a new snapshot of them.
+     */
+    public void load() {
+        // Load into fresh collections, so items and chests removed from the files do not survive a reload.
+        Map<Integer, ItemStack> items = new HashMap<>();
+        Set<RebusChest> chests = new HashSet<>();
+        loadChests(items, chests);
+        _snapshot = buildSnapshot(items, chests);
+        MainGUI.rebuildButtons();
+        PreviewGUI.rebuildPages();
+    }
 
     /**
      * Loads chests and items from configuration and resource files.
      * Ensures necessary directories and files exist, and initializes the chest and item data.
+     *
+     * @param items  The map the loaded items are added to, keyed by their ID.
+     * @param chests The set the loaded chests are added to.
      */
-    public void load() {
-        // Initialize the set of chests.
-        chests = new HashSet<>();
+    private void loadChests(Map<Integer, ItemStack> items, Set<RebusChest> chests) {
 
         // Ensure the chests directory exists and create default chest files if necessary.
         var chestsDir = Paths.get(Rebus.Instance.getDataFolder().getPath(), "chests").toFile();
@@ -152,7 +227,7 @@ public class ChestManager {
                 // Retrieve the item ID and deserialize the item stack.
                 int id = itemData.containsKey("id") ? ((Number) itemData.get("id")).intValue() : -1;
                 var itemStack = Rebus.itemSerializer().deserializeItemStack(itemData);
-                itemTable.put(id, itemStack);
+                items.put(id, itemStack);
             }
 
         } catch (Exception ex) {
@@ -184,7 +259,7 @@ public class ChestManager {
             }
 
             // Create a RebusChest instance from the configuration and add it to the set.
-            var chest = RebusChest.fromMap(key, chestSection);
+            var chest = RebusChest.fromMap(key, chestSection, items);
             if (chest != null) {
                 chests.add(chest);
             }
@@ -192,18 +267,78 @@ public class ChestManager {
     }
 
     /**
-     * Retrieves a chest by its unique key.
+     * Retrieves a chest by its unique key, ignoring case.
      *
      * @param key The unique key of the chest.
      * @return The RebusChest object if found, or null if not found.
      */
-    public @Nullable RebusChest getByKey(String key) {
-        for (var chest : chests) {
-            if (chest.getKey().equalsIgnoreCase(key)) {
-                return chest;
+    public @Nullable RebusChest getByKey(@Nullable String key) {
+        if (key == null)
+            return null;
+        return _snapshot.byKey().get(key.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Retrieves the chest shown in a slot of the main menu.
+     *
+     * @param slot The slot of the main menu.
+     * @return The RebusChest object if found, or null if not found.
+     */
+    public @Nullable RebusChest getBySlot(int slot) {
+        return _snapshot.bySlot().get(slot);
+    }
+
+    /**
+     * Retrieves the chests shown in the main menu, keyed by their slot.
+     *
+     * @return An unmodifiable map of slots to chests.
+     */
+    public Map<Integer, RebusChest> getChestsBySlot() {
+        return _snapshot.bySlot();
+    }
+
+    /**
+     * Builds a snapshot of the loaded items and chests, including the key and slot indexes.
+     * Keys are matched case-insensitively, so two chests whose keys only differ in case cannot both be used.
+     *
+     * @param items  The loaded items, keyed by their ID.
+     * @param chests The loaded chests.
+     * @return The new snapshot.
+     */
+    private ChestSnapshot buildSnapshot(Map<Integer, ItemStack> items, Set<RebusChest> chests) {
+        Map<String, RebusChest> byKey = new HashMap<>();
+        Map<Integer, RebusChest> bySlot = new TreeMap<>();
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        // Sort the chests by key, so the chest kept on a conflict does not depend on the hash order.
+        List<RebusChest> sorted = new ArrayList<>(chests);
+        sorted.sort(Comparator.comparing(RebusChest::getKey));
+        for (RebusChest chest : sorted) {
+            var previous = byKey.putIfAbsent(chest.getKey().toLowerCase(Locale.ROOT), chest);
+            if (previous != null) {
+                Rebus.logger().warn(String.format("Chest '%s' has the same key as chest '%s', ignoring it.", chest.getKey(), previous.getKey()));
+                continue;
+            }
+            materials.add(chest.getMaterial());
+
+            previous = bySlot.putIfAbsent(chest.getSlot(), chest);
+            if (previous != null) {
+                Rebus.logger().warn(String.format("Chest '%s' uses the same slot as chest '%s', it will not be shown in the menu.", chest.getKey(), previous.getKey()));
             }
         }
-        return null;
+        return new ChestSnapshot(Collections.unmodifiableMap(items), Set.copyOf(chests), Map.copyOf(byKey),
+                Collections.unmodifiableMap(bySlot), Collections.unmodifiableSet(materials));
+    }
+
+    /**
+     * Retrieves the chest an item belongs to.
+     * Items of other materials are rejected before their persistent data is read.
+     *
+     * @param item The item to check.
+     * @return The RebusChest object if the item is a chest item, or null otherwise.
+     */
+    public @Nullable RebusChest getByItem(@Nullable ItemStack item) {
+        String key = ChestItemFilter.getChestKey(item, _snapshot.materials(), _chestKey);
+        return key == null ? null : getByKey(key);
     }
 
     /**
@@ -218,11 +353,12 @@ public class ChestManager {
         // Get the location of the block where the chest is being placed.
         final Location location = block.getLocation();
 
-        // Add the location to the set of chests under unlocking.
-        chestsUnderUnlocking.add(location);
-
-        // Add the player to the set of players currently unlocking chests.
-        playersUnlocking.add(player.getUniqueId());
+        // Register the opening, unless the player is already unlocking a chest or the location is occupied.
+        final ChestOpening opening = new ChestOpening(player, chest, block, Rebus.config().animationVirtualBlocks);
+        if (!_registry.register(opening)) {
+            return;
+        }
+        _protection.register();
 
         // Check if the item is in the player's off-hand and reduce its amount or remove it from inventory.
         var offHand = player.getInventory().getItemInOffHand();
@@ -233,190 +369,484 @@ public class ChestManager {
             player.getInventory().removeItem(item.asQuantity(1));
         }
 
-        //#region Animate
-
-        // Temporarily set the block to the chest material and play initial particle effects.
-        setTemporaryBlock(player, chest.getMaterial(), block);
+        // Play the initial particle effects, the rest of the animation is driven by the shared animation task.
         this.playParticleEffect(location.clone().add(0.5, 1.0, 0.5), chest.getParticle(), 10, 0.3, 0.3, 0.3, 0.1);
+        _openings.add(opening);
+        startAnimationTask();
+    }
 
-        // Create a new task to handle the animation phases.
-        new BukkitRunnable() {
-            int phase = 0;
-
-            public void run() {
-                switch (this.phase) {
-                    case 0: {
-                        // Play the chest opening sound and particle effects.
-                        var sound = SoundUtils.getSound(chest.getOpenSound());
-                        if (sound.isEmpty()) {
-                            Rebus.logger().warn("Invalid sound: " + chest.getOpenSound());
-                        }
-                        else {
-                            location.getWorld().playSound(sound.get(), location.getX(), location.y(), location.z());
-                        }
-                        playParticleEffect(location.clone().add(0.5, 1.0, 0.5), chest.getParticle(), 20, 0.5, 0.5, 0.5, 0.15);
-                        new BukkitRunnable() {
-                            @Override
-                            public void run() {
-                                // Play the chest opening animation.
-                                playChestAnimation(player, block, true);
-                            }
-                        }.runTaskLater(Rebus.Instance, 1L);
-                        break;
-                    }
-                    case 1: {
-                        // Play additional particle effects at a lower height.
-                        playParticleEffect(location.clone().add(0.5, 0.8, 0.5), chest.getParticle(), 15, 0.3, 0.3, 0.3, 0.1);
-                        break;
-                    }
-                    case 2: {
-                        // Play more particle effects and a firework effect if the chest is high-tier.
-                        playParticleEffect(location.clone().add(0.5, 1.2, 0.5), chest.getParticle(), 25, 0.6, 0.6, 0.6, 0.2);
-                        if (!chest.isHighTier()) break;
-                        playParticleEffect(location.clone().add(0.5, 1.5, 0.5), "FIREWORK", 10, 0.8, 0.8, 0.8, 0.3);
-                        break;
-                    }
-                    case 3: {
-                        // Play the chest closing sound and animation.
-                        var sound = SoundUtils.getSound(chest.getCloseSound());
-                        if (sound.isEmpty()) {
-                            Rebus.logger().warn("Invalid sound: " + chest.getOpenSound());
-                        }
-                        else {
-                            location.getWorld().playSound(sound.get(), location.getX(), location.y(), location.z());
-                        }
-                        new BukkitRunnable() {
-                            @Override
-                            public void run() {
-                                playChestAnimation(player, block, false);
-                            }
-                        }.runTaskLater(Rebus.Instance, 1L);
-                    }
-                }
-                ++this.phase;
-
-                // End the animation after all phases are complete.
-                if (this.phase >= 4) {
-                    this.cancel();
-                    new BukkitRunnable() {
-                        public void run() {
-                            // Remove the location and player from the unlocking sets and play completion effects.
-                            chestsUnderUnlocking.remove(location);
-                            playersUnlocking.remove(player.getUniqueId());
-                            playCompletionEffects(player, location, chest);
-                            chest.reward(player);
-                        }
-                    }.runTaskLater(Rebus.Instance, 10L);
+    /**
+     * Starts the shared animation task if it is not running yet.
+     */
+    private void startAnimationTask() {
+        if (_animationTask != null && !_animationTask.isCancelled())
+            return;
+
+        _animationTask = new ChestAnimationTask();
+        _animationTask.runTaskTimer(Rebus.Instance, 1L, 1L);
+    }
+
+    /**
+     * Stops the shared animation task.
+     */
+    private void stopAnimationTask() {
+        if (_animationTask != null && !_animationTask.isCancelled())
+            _animationTask.cancel();
+        _animationTask = null;
+    }
+
+    /**
+     * Advances every active chest opening by one tick. Called by the shared animation task.
+     * The task stops itself once no openings are left.
+     */
+    public void tickOpenings() {
+        Iterator<ChestOpening> iterator = _openings.iterator();
+        while (iterator.hasNext()) {
+            ChestOpening opening = iterator.next();
+            try {
+                if (advanceOpening(opening))
+                    iterator.remove();
+            } catch (Exception ex) {
+                // Never let a single broken opening stop the others, finish it right away instead.
+                Rebus.logger().error("Error advancing chest animation: " + ex.getMessage());
+                iterator.remove();
+                try {
+                    finishOpening(opening);
+                } catch (Exception finishEx) {
+                    Rebus.logger().error("Error finishing chest opening: " + finishEx.getMessage());
                 }
             }
-        }.runTaskTimer(Rebus.Instance, 10L, 15L);
+        }
+
+        if (_openings.isEmpty())
+            stopAnimationTask();
+    }
+
+    /**
+     * Advances a chest opening by one tick and plays the animation phase that is due.
+     *
+     * @param opening The opening to advance.
+     * @return True if the opening has finished, false otherwise.
+     */
+    private boolean advanceOpening(final ChestOpening opening) {
+        final Player player = opening.getPlayer();
+        final RebusChest chest = opening.getChest();
+        final Location location = opening.getLocation();
+
+        switch (opening.advance()) {
+            case TICK_PLACE: {
+                // Temporarily show the chest, facing the player.
+                placeChestBlock(opening);
+                break;
+            }
+            case TICK_OPEN: {
+                // Play the chest opening sound and particle effects.
+                playSound(location, chest.getOpenSound());
+                playParticleEffect(location.clone().add(0.5, 1.0, 0.5), chest.getParticle(), 20, 0.5, 0.5, 0.5, 0.15);
+                break;
+            }
+            case TICK_OPEN + 1: {
+                // Play the chest opening animation.
+                playChestAnimation(opening, true);
+                break;
+            }
+            case TICK_OPEN + PHASE_INTERVAL: {
+                // Play additional particle effects at a lower height.
+                playParticleEffect(location.clone().add(0.5, 0.8, 0.5), chest.getParticle(), 15, 0.3, 0.3, 0.3, 0.1);
+                break;
+            }
+            case TICK_OPEN + 2 * PHASE_INTERVAL: {
+                // Play more particle effects and a firework effect if the chest is high-tier.
+                playParticleEffect(location.clone().add(0.5, 1.2, 0.5), chest.getParticle(), 25, 0.6, 0.6, 0.6, 0.2);
+                if (!chest.isHighTier()) break;
+                playParticleEffect(location.clone().add(0.5, 1.5, 0.5), Particle.FIREWORK, 10, 0.8, 0.8, 0.8, 0.3);
+                break;
+            }
+            case TICK_CLOSE: {
+                // Play the chest closing sound.
+                playSound(location, chest.getCloseSound());
+                break;
+            }
+            case TICK_CLOSE + 1: {
+                // Play the chest closing animation.
+                playChestAnimation(opening, false);
+                break;
+            }
+            case TICK_COMPLETE: {
+                // Reward the player first, so a failing effect cannot cost them the chest, then remove the block.
+                completeOpening(opening);
+                removeChestBlock(opening);
+                playCompletionEffects(player, location, chest);
+                break;
+            }
+            case TICK_COMPLETE + COMPLETION_FOLLOW_UP: {
+                playCompletionFollowUp(location, chest);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finishes a chest opening immediately, without the remaining effects.
+     * The block is removed and the player still receives the reward, so the chest item is not lost.
+     *
+     * @param opening The opening to finish.
+     */
+    private void finishOpening(final ChestOpening opening) {
+        // The block is shown from the place tick until it is removed on the complete tick.
+        if (opening.getTick() >= TICK_PLACE && opening.getTick() <= TICK_COMPLETE) {
+            try {
+                removeChestBlock(opening);
+            } catch (Exception ex) {
+                Rebus.logger().error("Error removing chest block: " + ex.getMessage());
+            }
+        }
+        completeOpening(opening);
+    }
+
+    /**
+     * Completes a chest opening: removes it from the registry and rewards the player, unless that was already done.
+     * Both steps are guarded separately, so a failing reward still releases the block and the player.
+     *
+     * @param opening The opening to complete.
+     */
+    private void completeOpening(final ChestOpening opening) {
+        if (opening.isRewarded())
+            return;
+
+        try {
+            unregisterOpening(opening);
+        } catch (Exception ex) {
+            Rebus.logger().error("Error unregistering chest opening: " + ex.getMessage());
+        }
+
+        // Mark the opening before rewarding, so a reward that fails halfway is never handed out twice.
+        opening.setRewarded();
+        try {
+            opening.getChest().reward(opening.getPlayer());
+        } catch (Exception ex) {
+            Rebus.logger().error("Error rewarding chest opening: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Removes an opening from the registry, and stops protecting the blocks once no openings are left.
+     *
+     * @param opening The opening to remove.
+     */
+    private void unregisterOpening(ChestOpening opening) {
+        _registry.unregister(opening);
+        if (_registry.isEmpty())
+            _protection.unregister();
+    }
+
+    /**
+     * Finishes the chest openings of a player immediately, e.g. when the player quits.
+     *
+     * @param player The player whose openings are finished.
+     */
+    public void cancelOpenings(final Player player) {
+        Iterator<ChestOpening> iterator = _openings.iterator();
+        while (iterator.hasNext()) {
+            ChestOpening opening = iterator.next();
+            if (!opening.getPlayer().getUniqueId().equals(player.getUniqueId()))
+                continue;
+            iterator.remove();
+            finishOpening(opening);
+        }
+
+        if (_openings.isEmpty())
+            stopAnimationTask();
+    }
+
+    /**
+     * Finishes every chest opening immediately and stops the animation task, e.g. when the plugin is disabled.
+     */
+    public void cancelAllOpenings() {
+        List<ChestOpening> openings = new ArrayList<>(_openings);
+        _openings.clear();
+        stopAnimationTask();
+        for (ChestOpening opening : openings) {
+            finishOpening(opening);
+        }
+
+        // Nothing is opening anymore, so drop whatever is left and stop protecting the blocks.
+        _registry.clear();
+        _protection.unregister();
+    }
+
+    /**
+     * Opens several chests of the same kind at once, without the placement animation.
+     * The cooldown of the chest is checked once, and chests with a cooldown can only be opened one at a time
+     * unless the player can bypass cooldowns.
+     *
+     * @param player    The player opening the chests.
+     * @param chest     The RebusChest being opened.
+     * @param requested The number of chests the player wants to open.
+     */
+    public void bulkOpen(final Player player, final RebusChest chest, final int requested) {
+        bulkOpen(player, chest, requested, null);
+    }
+
+    /**
+     * Opens several chests of the same kind at once, without the placement animation.
+     * The chest items are taken from the given hand first, then from the rest of the inventory.
+     *
+     * @param player    The player opening the chests.
+     * @param chest     The RebusChest being opened.
+     * @param requested The number of chests the player wants to open.
+     * @param hand      The hand holding the chest items, or null to search the inventory only.
+     */
+    public void bulkOpen(final Player player, final RebusChest chest, final int requested, final @Nullable EquipmentSlot hand) {
+        // Check if the player is already unlocking a chest.
+        if (_registry.isUnlocking(player.getUniqueId())) {
+            Rebus.Instance.sendLocalizedMsg(player, "Chests.AlreadyOpening");
+            return;
+        }
+
+        // Check if the player has the required permission to open the chest.
+        if (!player.hasPermission(chest.getPermission())) {
+            Rebus.Instance.sendLocalizedMsg(player, "General.NoPermission");
+            return;
+        }
+
+        // The cooldown bypass does not need the database at all.
+        if (player.hasPermission("rebus.bypass.cooldown")) {
+            handleBulkOpen(player, chest, requested, hand);
+            return;
+        }
+
+        // Claim the player until the lookup has finished, so requests sent in the meantime cannot skip the cooldown.
+        final UUID playerId = player.getUniqueId();
+        if (!_pendingBulkOpens.add(playerId)) {
+            Rebus.Instance.sendLocalizedMsg(player, "Chests.AlreadyOpening");
+            return;
+        }
+
+        // Check if the chest is on cooldown for the player without blocking the main thread.
+        DatabaseExecutor.callback(Rebus.database().getCooldownAsync(playerId, ECooldownType.OPEN, chest.getKey()), remainingTime -> {
+            _pendingBulkOpens.remove(playerId);
+            if (!player.isOnline()) {
+                return;
+            }
+
+            if (remainingTime > 0) {
+                Rebus.Instance.sendLocalizedMsg(player, "Chests.Cooldown", Map.of("time", TimeUtil.formatDuration(player, remainingTime)));
+                return;
+            }
 
-        //#endregion
+            // Validate the state again, since it may have changed while the cooldown was being looked up.
+            if (_registry.isUnlocking(playerId)) {
+                Rebus.Instance.sendLocalizedMsg(player, "Chests.AlreadyOpening");
+                return;
+            }
+
+            // A chest with a cooldown can only be opened once per cooldown, tell the player if fewer were opened.
+            int allowed = chest.getCooldown() > 0 ? 1 : requested;
+            if (handleBulkOpen(player, chest, allowed, hand) && allowed < requested)
+                Rebus.Instance.sendLocalizedMsg(player, "Chests.BulkCooldownLimited", Map.of("chest", chest.getName()));
+        }, () -> {
+            _pendingBulkOpens.remove(playerId);
+            if (player.isOnline())
+                Rebus.Instance.sendLocalizedMsg(player, "Commands.UnknownError");
+        });
     }
 
+    /**
+     * Takes the chest items from the inventory of a player and rewards every one of them in a single pass.
+     *
+     * @param player    The player opening the chests.
+     * @param chest     The RebusChest being opened.
+     * @param requested The number of chests the player wants to open.
+     * @param hand      The hand holding the chest items, or null to search the inventory only.
+     * @return True if at least one chest was opened, false otherwise.
+     */
+    private boolean handleBulkOpen(final Player player, final RebusChest chest, final int requested, final @Nullable EquipmentSlot hand) {
+        int amount = Math.min(requested, Rebus.config().bulkOpenMaxAmount);
+        amount = takeChestItems(player, chest, amount, hand);
+        if (amount <= 0) {
+            Rebus.Instance.sendLocalizedMsg(player, "Chests.NoChestItems", Map.of("chest", chest.getName()));
+            return false;
+        }
+
+        // Play one summarized effect for the whole batch.
+        var location = player.getLocation().getBlock().getLocation();
+        playCompletionEffects(player, location, chest);
+        playCompletionFollowUp(location, chest);
+        chest.rewardBulk(player, amount);
+        return true;
+    }
+
+    /**
+     * Removes up to the given number of items of a chest from the inventory of a player.
+     * Items in the given hand are taken first, then the inventory is searched from its first slot.
+     *
+     * @param player The player whose inventory is searched.
+     * @param chest  The RebusChest whose items are removed.
+     * @param amount The maximum number of items to remove.
+     * @param hand   The hand to take the items from first, or null to search the inventory only.
+     * @return The number of items removed.
+     */
+    private int takeChestItems(final Player player, final RebusChest chest, final int amount, final @Nullable EquipmentSlot hand) {
+        var inventory = player.getInventory();
+        int taken = 0;
+        if (hand != null) {
+            ItemStack held = inventory.getItem(hand);
+            if (isChestItem(held, chest)) {
+                taken = Math.min(held.getAmount(), amount);
+                inventory.setItem(hand, taken >= held.getAmount() ? null : held.asQuantity(held.getAmount() - taken));
+            }
+        }
+
+        // Read the contents after emptying the hand, so the held items are not counted twice.
+        ItemStack[] contents = inventory.getContents();
+        for (int slot = 0; slot < contents.length && taken < amount; slot++) {
+            ItemStack item = contents[slot];
+            if (!isChestItem(item, chest))
+                continue;
+
+            int take = Math.min(item.getAmount(), amount - taken);
+            taken += take;
+            if (take >= item.getAmount())
+                inventory.setItem(slot, null);
+            else
+                inventory.setItem(slot, item.asQuantity(item.getAmount() - take));
+        }
+        return taken;
+    }
+
+    /**
+     * Checks if an item is the item of the given chest.
+     *
+     * @param item  The item to check.
+     * @param chest The RebusChest to compare against.
+     * @return True if the item belongs to the chest, false otherwise.
+     */
+    private boolean isChestItem(@Nullable ItemStack item, final RebusChest chest) {
+        return getByItem(item) == chest;
+    }
 
     /**
      * Plays a particle effect at the specified location.
      *
      * @param location   The location where the particle effect will be displayed.
-     * @param particleType The type of particle to display.
+     * @param particle   The particle to display.
      * @param count      The number of particles to spawn.
      * @param offsetX    The offset on the X-axis for particle spread.
      * @param offsetY    The offset on the Y-axis for particle spread.
      * @param offsetZ    The offset on the Z-axis for particle spread.
      * @param speed      The speed of the particle effect.
      */
-    private void playParticleEffect(Location location, String particleType, int count, double offsetX, double offsetY, double offsetZ, double speed) {
+    private void playParticleEffect(Location location, Particle particle, int count, double offsetX, double offsetY, double offsetZ, double speed) {
         try {
-            Particle particle = this.getParticleSafely(particleType);
-            location.getWorld().spawnParticle(Objects.requireNonNullElse(particle, Particle.ENCHANT), location, count, offsetX, offsetY, offsetZ, speed);
+            _effects.spawnParticle(location, particle, count, offsetX, offsetY, offsetZ, speed);
         } catch (Exception exception) {
             Rebus.logger().error("Error playing particle effect: " + exception.getMessage());
         }
     }
 
     /**
-     * Safely retrieves a Particle object from its string representation.
+     * Plays completion effects for a chest, including particles and sounds.
      *
-     * @param particleType The string representation of the particle type.
-     * @return The corresponding Particle object, or null if not found.
+     * @param player   The player for whom the effects are played.
+     * @param location The location of the chest.
+     * @param chest    The RebusChest object representing the chest.
      */
-    private Particle getParticleSafely(String particleType) {
-        try {
-            NamespacedKey key = NamespacedKey.minecraft(particleType.toLowerCase());
-            return Registry.PARTICLE_TYPE.get(key);
-        } catch (Exception e) {
-            return null;
-        }
+    private void playCompletionEffects(Player player, final Location location, final RebusChest chest) {
+        this.playParticleEffect(location.clone().add(0.5, 0.5, 0.5), chest.getParticle(), chest.getParticleCount(), 0.8, 0.8, 0.8, 0.3);
+        playSound(location, chest.getCompletionSound());
     }
 
     /**
-     * Plays completion effects for a chest, including particles and sounds.
+     * Plays the effects following the completion effects of a chest.
      *
-     * @param player   The player for whom the effects are played.
      * @param location The location of the chest.
      * @param chest    The RebusChest object representing the chest.
      */
-    private void playCompletionEffects(Player player, final Location location, final RebusChest chest) {
-        this.playParticleEffect(location.clone().add(0.5, 0.5, 0.5), chest.getParticle(), chest.getParticleCount(), 0.8, 0.8, 0.8, 0.3);
-        var sound = SoundUtils.getSound(chest.getCompletionSound());
-        if (sound.isEmpty()) {
-            Rebus.logger().warn("Invalid sound: " + chest.getOpenSound());
-        }
-        else {
-            location.getWorld().playSound(sound.get(), location.getX(), location.y(), location.z());
-        }
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                playParticleEffect(location.clone().add(0.5, 1.5, 0.5), "FIREWORK", 10, 0.2, 0.2, 0.2, 0.1);
-                if (chest.isHighTier()) {
-                    playParticleEffect(location.clone().add(0.5, 2.0, 0.5), "END_ROD", 15, 1.0, 1.0, 1.0, 0.5);
-                }
-            }
-        }.runTaskLater(Rebus.Instance, 5L);
+    private void playCompletionFollowUp(final Location location, final RebusChest chest) {
+        playParticleEffect(location.clone().add(0.5, 1.5, 0.5), Particle.FIREWORK, 10, 0.2, 0.2, 0.2, 0.1);
+        if (chest.isHighTier()) {
+            playParticleEffect(location.clone().add(0.5, 2.0, 0.5), Particle.END_ROD, 15, 1.0, 1.0, 1.0, 0.5);
+        }
     }
 
     /**
-     * Temporarily sets a block to a specific material and reverts it after a delay.
+     * Plays a sound at the specified location.
      *
-     * @param player   The player interacting with the block.
-     * @param material The material to temporarily set the block to.
-     * @param block    The block to be modified.
+     * @param location The location where the sound will be played.
+     * @param sound    The sound to play, or null to play nothing.
      */
-    private void setTemporaryBlock(final Player player, final Material material, final Block block) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                block.setType(material);
-                block.getState().update(true);
-                rotateChestToPlayer(block, player);
-            }
-        }.runTask(Rebus.Instance);
+    private void playSound(final Location location, final @Nullable Sound sound) {
+        if (sound == null)
+            return;
+        _effects.playSound(location, sound);
+    }
 
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                block.setType(Material.AIR);
-            }
-        }.runTaskLater(Rebus.Instance, 65L);
+    /**
+     * Shows the chest of an opening at its block.
+     * In virtual mode only nearby players are sent a block change, otherwise the block is placed in the world.
+     *
+     * @param opening The opening whose chest is shown.
+     */
+    private void placeChestBlock(final ChestOpening opening) {
+        final BlockData blockData = createChestBlockData(opening.getChest().getMaterial(), opening.getLocation(), opening.getPlayer());
+        if (!opening.isVirtual()) {
+            opening.getBlock().setBlockData(blockData);
+            return;
+        }
+
+        // Only players close enough to see the chest receive it, the world is never modified.
+        final Location location = opening.getLocation();
+        final double maxDistanceSquared = Math.pow(Rebus.config().animationViewDistance, 2);
+        List<Player> viewers = new ArrayList<>();
+        for (Player viewer : location.getWorld().getPlayers()) {
+            if (viewer.getLocation().distanceSquared(location) > maxDistanceSquared)
+                continue;
+            viewer.sendBlockChange(location, blockData);
+            viewers.add(viewer);
+        }
+        opening.setBlockData(blockData);
+        opening.setViewers(viewers);
     }
 
     /**
-     * Rotates a chest block to face the player.
+     * Removes the chest of an opening from its block.
+     * In virtual mode the viewers are sent the real block again, otherwise the block is set to air.
      *
-     * @param block  The chest block to rotate.
-     * @param player The player to face the chest towards.
+     * @param opening The opening whose chest is removed.
      */
-    private void rotateChestToPlayer(Block block, Player player) {
-        if (!(block.getBlockData() instanceof Directional directionalData))
+    private void removeChestBlock(final ChestOpening opening) {
+        if (!opening.isVirtual()) {
+            opening.getBlock().setType(Material.AIR);
             return;
-        Location playerLoc = player.getLocation();
-        Location blockLoc = block.getLocation();
-        var direction = playerLoc.toVector().subtract(blockLoc.toVector());
+        }
+
+        final Location location = opening.getLocation();
+        final BlockData realData = opening.getBlock().getBlockData();
+        for (Player viewer : opening.getViewers()) {
+            if (!viewer.isOnline() || !viewer.getWorld().equals(location.getWorld()))
+                continue;
+            viewer.sendBlockChange(location, realData);
+        }
+    }
+
+    /**
+     * Creates the block data of a chest facing the player.
+     *
+     * @param material The material of the chest.
+     * @param location The location of the chest.
+     * @param player   The player to face the chest towards.
+     * @return The block data of the chest.
+     */
+    private BlockData createChestBlockData(Material material, Location location, Player player) {
+        BlockData blockData = material.createBlockData();
+        if (!(blockData instanceof Directional directionalData))
+            return blockData;
+        var direction = player.getLocation().toVector().subtract(location.toVector());
         BlockFace face = getDirectionFromVector(direction);
         directionalData.setFacing(face);
-        block.setBlockData(directionalData);
+        return directionalData;
     }
 
     /**
@@ -436,6 +866,26 @@ public class ChestManager {
         }
     }
 
+    /**
+     * Plays the chest animation (open or close) of an opening.
+     * In virtual mode every viewer sees the animation, otherwise only the player opening the chest.
+     *
+     * @param opening The opening to animate.
+     * @param open    True to play the open animation, false for close.
+     */
+    private void playChestAnimation(final ChestOpening opening, boolean open) {
+        final Material material = opening.getChest().getMaterial();
+        if (!opening.isVirtual()) {
+            playChestAnimation(opening.getPlayer(), opening.getLocation(), material, open);
+            return;
+        }
+
+        for (Player viewer : opening.getViewers()) {
+            if (viewer.isOnline())
+                playChestAnimation(viewer, opening.getLocation(), material, open);
+        }
+    }
+
     /**
      * Plays a chest animation (open or close) for a player.
      *
@@ -444,12 +894,23 @@ public class ChestManager {
      * @param open       True to play the open animation, false for close.
      */
     public static void playChestAnimation(Player player, Block chestBlock, boolean open) {
+        playChestAnimation(player, chestBlock.getLocation(), chestBlock.getType(), open);
+    }
+
+    /**
+     * Plays a chest animation (open or close) for a player, at a chest that may only exist on the client.
+     *
+     * @param player   The player for whom the animation is played.
+     * @param loc      The location of the chest.
+     * @param material The material of the chest.
+     * @param open     True to play the open animation, false for close.
+     */
+    public static void playChestAnimation(Player player, Location loc, Material material, boolean open) {
         try {
             PacketContainer packet = new PacketContainer(PacketType.Play.Server.BLOCK_ACTION);
 
-            Location loc = chestBlock.getLocation();
             packet.getBlockPositionModifier().write(0, new BlockPosition(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()));
-            packet.getBlocks().write(0, chestBlock.getType());
+            packet.getBlocks().write(0, material);
 
             // The action ID: 1 for chests
             packet.getIntegers().write(0, 1);
@@ -0,0 +1,137 @@
+package io.github.tavstaldev.rebus.managers;
+
+import io.github.tavstaldev.rebus.Rebus;
+import io.github.tavstaldev.rebus.RebusConfig;
+import net.kyori.adventure.sound.Sound;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Particle;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends particle and sound effects only to the players close enough to see them.
+ * <p>
+ * Particles are limited by a budget shared by every effect played in the same tick, so a lot of chests opening
+ * at once scale their effects down instead of flooding the clients. Players can also ask for reduced effects,
+ * in which case they receive only a fraction of the particles. Must only be used from the main thread.
+ * </p>
+ */
+public class EffectManager {
+    // Namespaced key of the reduced effects preference, stored on the player.
+    private final NamespacedKey _reducedEffectsKey = new NamespacedKey(Rebus.Instance, "reduced_effects");
+
+    // Players receiving the effect being played, reused to avoid allocating a list for every effect.
+    private final List<Player> _viewers = new ArrayList<>();
+
+    // The tick the particle budget was last reset in.
+    private int _budgetTick = -1;
+
+    // The number of particles sent in the current tick.
+    private int _particlesSent;
+
+    /**
+     * Spawns a particle effect for the players close to the location.
+     * The number of particles is scaled down if the budget of the current tick is running out.
+     *
+     * @param location The location where the particle effect will be displayed.
+     * @param particle The particle to display.
+     * @param count    The number of particles to spawn.
+     * @param offsetX  The offset on the X-axis for particle spread.
+     * @param offsetY  The offset on the Y-axis for particle spread.
+     * @param offsetZ  The offset on the Z-axis for particle spread.
+     * @param speed    The speed of the particle effect.
+     */
+    public void spawnParticle(Location location, Particle particle, int count, double offsetX, double offsetY, double offsetZ, double speed) {
+        RebusConfig config = Rebus.config();
+        collectViewers(location, config.effectsRadius);
+        if (_viewers.isEmpty())
+            return;
+
+        // Share the remaining budget of this tick between the viewers.
+        resetBudgetIfNeeded();
+        int remaining = config.effectsParticleBudget - _particlesSent;
+        int perViewer = Math.min(count, remaining / _viewers.size());
+        if (perViewer <= 0)
+            return;
+
+        for (Player viewer : _viewers) {
+            int viewerCount = perViewer;
+            if (hasReducedEffects(viewer))
+                viewerCount = (int) Math.ceil(perViewer * config.effectsReducedMultiplier);
+            if (viewerCount <= 0)
+                continue;
+
+            viewer.spawnParticle(particle, location, viewerCount, offsetX, offsetY, offsetZ, speed);
+            _particlesSent += viewerCount;
+        }
+        _viewers.clear();
+    }
+
+    /**
+     * Plays a sound for the players close to the location.
+     *
+     * @param location The location where the sound will be played.
+     * @param sound    The sound to play.
+     */
+    public void playSound(Location location, Sound sound) {
+        collectViewers(location, Rebus.config().effectsRadius);
+        for (Player viewer : _viewers) {
+            viewer.playSound(sound, location.getX(), location.getY(), location.getZ());
+        }
+        _viewers.clear();
+    }
+
+    /**
+     * Checks if a player asked for reduced effects.
+     *
+     * @param player The player to check.
+     * @return True if the player receives reduced effects, false otherwise.
+     */
+    public boolean hasReducedEffects(Player player) {
+        return player.getPersistentDataContainer().has(_reducedEffectsKey, PersistentDataType.BYTE);
+    }
+
+    /**
+     * Sets whether a player receives reduced effects. The preference is stored on the player, so it persists.
+     *
+     * @param player  The player to update.
+     * @param reduced True to receive reduced effects, false to receive every effect.
+     */
+    public void setReducedEffects(Player player, boolean reduced) {
+        if (reduced)
+            player.getPersistentDataContainer().set(_reducedEffectsKey, PersistentDataType.BYTE, (byte) 1);
+        else
+            player.getPersistentDataContainer().remove(_reducedEffectsKey);
+    }
+
+    /**
+     * Collects the players within the radius of a location into the viewer list.
+     *
+     * @param location The center of the effect.
+     * @param radius   The radius in blocks.
+     */
+    private void collectViewers(Location location, int radius) {
+        _viewers.clear();
+        double maxDistanceSquared = (double) radius * radius;
+        for (Player player : location.getWorld().getPlayers()) {
+            if (player.getLocation().distanceSquared(location) <= maxDistanceSquared)
+                _viewers.add(player);
+        }
+    }
+
+    /**
+     * Resets the particle budget when a new tick has started.
+     */
+    private void resetBudgetIfNeeded() {
+        int currentTick = Bukkit.getCurrentTick();
+        if (currentTick == _budgetTick)
+            return;
+        _budgetTick = currentTick;
+        _particlesSent = 0;
+    }
+}
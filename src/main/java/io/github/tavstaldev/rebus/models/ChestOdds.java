@@ -0,0 +1,116 @@
+package io.github.tavstaldev.rebus.models;
+
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The exact odds of a chest, computed once from the weights of its rewards.
+ * <p>
+ * Opening a chest draws exactly one reward bundle, so the chance of a bundle is its weight over the total weight.
+ * An item can be part of several bundles; since the bundles exclude each other, the chance of receiving the item
+ * is the sum of the chances of the bundles containing it. Items are matched by their single-item form,
+ * so the same item in different amounts counts as one item.
+ * </p>
+ */
+public final class ChestOdds {
+    /**
+     * The odds of a reward bundle.
+     *
+     * @param reward      The reward bundle.
+     * @param probability The chance of the bundle being drawn, between 0 and 1.
+     */
+    public record BundleOdds(Reward reward, double probability) {
+    }
+
+    /**
+     * The odds of an item.
+     *
+     * @param item           The item, as a single item.
+     * @param probability    The chance of receiving the item from one opening, between 0 and 1.
+     * @param expectedAmount The average amount of the item received per opening.
+     */
+    public record ItemOdds(ItemStack item, double probability, double expectedAmount) {
+    }
+
+    // Odds of every bundle that can be drawn, in the order they are defined in.
+    private final List<BundleOdds> _bundles;
+
+    // Odds of every item, keyed by its single-item form, in the order the items first appear in.
+    private final Map<ItemStack, ItemOdds> _items;
+
+    /**
+     * Computes the odds of a reward table.
+     *
+     * @param table The reward table of the chest.
+     */
+    public ChestOdds(RewardTable table) {
+        List<BundleOdds> bundles = new ArrayList<>();
+        Map<ItemStack, double[]> items = new LinkedHashMap<>();
+        long totalChance = table.getTotalChance();
+        for (Reward reward : table.getRewards()) {
+            double probability = totalChance <= 0 ? 0 : (double) reward.getChance() / totalChance;
+            bundles.add(new BundleOdds(reward, probability));
+
+            // Sum the amounts per item first, so a bundle holding an item twice is only counted once.
+            Map<ItemStack, Integer> amounts = new LinkedHashMap<>();
+            for (ItemStack item : reward.getItemStacks()) {
+                amounts.merge(item.asOne(), item.getAmount(), Integer::sum);
+            }
+
+            for (var entry : amounts.entrySet()) {
+                double[] odds = items.computeIfAbsent(entry.getKey(), key -> new double[2]);
+                odds[0] += probability;
+                odds[1] += probability * entry.getValue();
+            }
+        }
+
+        Map<ItemStack, ItemOdds> itemOdds = new LinkedHashMap<>();
+        for (var entry : items.entrySet()) {
+            itemOdds.put(entry.getKey(), new ItemOdds(entry.getKey(), Math.min(1.0, entry.getValue()[0]), entry.getValue()[1]));
+        }
+
+        _bundles = List.copyOf(bundles);
+        _items = Collections.unmodifiableMap(itemOdds);
+    }
+
+    /**
+     * Gets the odds of every reward bundle.
+     *
+     * @return An unmodifiable list of bundle odds, in the order the bundles are defined in.
+     */
+    public List<BundleOdds> getBundles() {
+        return _bundles;
+    }
+
+    /**
+     * Gets the odds of every item.
+     *
+     * @return An unmodifiable collection of item odds, in the order the items first appear in.
+     */
+    public Collection<ItemOdds> getItems() {
+        return _items.values();
+    }
+
+    /**
+     * Gets the odds of an item.
+     *
+     * @param item The item, in any amount.
+     * @return The odds of the item, or null if no bundle contains it.
+     */
+    public @Nullable ItemOdds getItemOdds(ItemStack item) {
+        return _items.get(item.asOne());
+    }
+
+    /**
+     * Gets the chance of receiving an item from one opening.
+     *
+     * @param item The item, in any amount.
+     * @return The chance between 0 and 1, or 0 if no bundle contains the item.
+     */
+    public double getProbability(ItemStack item) {
+        ItemOdds odds = getItemOdds(item);
+        return odds == null ? 0 : odds.probability();
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.tavstaldev.rebus.models;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Represents a chest being opened by a player, advanced tick by tick by the shared animation task.
+ */
+public class ChestOpening {
+    // The player opening the chest.
+    private final Player player;
+
+    // The chest being opened.
+    private final RebusChest chest;
+
+    // The block the chest is shown at.
+    private final Block block;
+
+    // The location of the block, cached to avoid allocating a new one on every tick.
+    private final Location location;
+
+    // Whether the chest is only shown to the viewers with block change packets, instead of being placed in the world.
+    private final boolean virtual;
+
+    // The players the chest is shown to, in virtual mode.
+    private List<Player> viewers = List.of();
+
+    // The block data sent to the viewers, in virtual mode, or null before the chest is shown.
+    private @Nullable BlockData blockData;
+
+    // The number of ticks elapsed since the opening started.
+    private int tick;
+
+    // Whether the opening was already completed and the player rewarded.
+    private boolean rewarded;
+
+    /**
+     * Constructs a ChestOpening instance.
+     *
+     * @param player  The player opening the chest.
+     * @param chest   The chest being opened.
+     * @param block   The block the chest is shown at.
+     * @param virtual Whether the chest is only shown with block change packets.
+     */
+    public ChestOpening(Player player, RebusChest chest, Block block, boolean virtual) {
+        this.player = player;
+        this.chest = chest;
+        this.block = block;
+        this.location = block.getLocation();
+        this.virtual = virtual;
+    }
+
+    /**
+     * Gets the player opening the chest.
+     *
+     * @return The player.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the chest being opened.
+     *
+     * @return The chest.
+     */
+    public RebusChest getChest() {
+        return chest;
+    }
+
+    /**
+     * Gets the block the chest is shown at.
+     *
+     * @return The block.
+     */
+    public Block getBlock() {
+        return block;
+    }
+
+    /**
+     * Gets the location of the block the chest is shown at.
+     * The returned location must not be modified.
+     *
+     * @return The location of the block.
+     */
+    public Location getLocation() {
+        return location;
+    }
+
+    /**
+     * Checks whether the chest is only shown with block change packets, instead of being placed in the world.
+     *
+     * @return True if the chest is virtual, false otherwise.
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Gets the players the chest is shown to, in virtual mode.
+     *
+     * @return An unmodifiable list of players.
+     */
+    public List<Player> getViewers() {
+        return viewers;
+    }
+
+    /**
+     * Sets the players the chest is shown to, in virtual mode.
+     *
+     * @param viewers The players the chest is shown to.
+     */
+    public void setViewers(List<Player> viewers) {
+        this.viewers = List.copyOf(viewers);
+    }
+
+    /**
+     * Gets the block data sent to the viewers, in virtual mode.
+     *
+     * @return The block data, or null if the chest is not shown yet.
+     */
+    public @Nullable BlockData getBlockData() {
+        return blockData;
+    }
+
+    /**
+     * Sets the block data sent to the viewers, in virtual mode.
+     *
+     * @param blockData The block data of the chest.
+     */
+    public void setBlockData(BlockData blockData) {
+        this.blockData = blockData;
+    }
+
+    /**
+     * Gets the number of ticks elapsed since the opening started.
+     *
+     * @return The elapsed ticks.
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Advances the opening by one tick.
+     *
+     * @return The number of ticks elapsed after advancing.
+     */
+    public int advance() {
+        return ++tick;
+    }
+
+    /**
+     * Checks whether the opening was already completed and the player rewarded.
+     *
+     * @return True if the player was rewarded, false otherwise.
+     */
+    public boolean isRewarded() {
+        return rewarded;
+    }
+
+    /**
+     * Marks the opening as completed, so the player is never rewarded twice.
+     */
+    public void setRewarded() {
+        this.rewarded = true;
+    }
+}
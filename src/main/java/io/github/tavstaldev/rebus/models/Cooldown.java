@@ -1,7 +1,5 @@
 package io.github.tavstaldev.rebus.models;
 
-import java.time.LocalDateTime;
-
 /**
  * Represents a cooldown for a specific chest in a given context.
  */
@@ -14,11 +12,11 @@ public class Cooldown {
     // The unique identifier of the chest associated with the cooldown.
     private final String chest;
 
-    // The expiration time of the cooldown.
-    private final LocalDateTime expiresAt;
+    // The expiration time of the cooldown in UTC epoch milliseconds.
+    private final long expiresAt;
 
 
-    public Cooldown(String context, ECooldownType type, String chest, LocalDateTime expiresAt) {
+    public Cooldown(String context, ECooldownType type, String chest, long expiresAt) {
         this.context = context;
         this.type = type;
         this.chest = chest;
@@ -50,18 +48,18 @@ public class Cooldown {
     /**
      * Retrieves the expiration time of the cooldown.
      *
-     * @return The expiration time as a LocalDateTime object.
+     * @return The expiration time in UTC epoch milliseconds.
      */
-    public LocalDateTime getExpiresAt() {
+    public long getExpiresAt() {
         return expiresAt;
     }
 
     /**
      * Checks if the cooldown has expired.
      *
-     * @return True if the current time is after the expiration time, false otherwise.
+     * @return True if the current time is at or after the expiration time, false otherwise.
      */
     public boolean isExpired() {
-        return LocalDateTime.now().isAfter(expiresAt);
+        return System.currentTimeMillis() >= expiresAt;
     }
 }
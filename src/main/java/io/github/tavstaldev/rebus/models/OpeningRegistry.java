@@ -0,0 +1,169 @@
+package io.github.tavstaldev.rebus.models;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the chest openings in progress: the players unlocking a chest and the blocks the chests occupy.
+ * <p>
+ * Openings are keyed by packed block positions, one map per world, so a lookup does not hash a Location.
+ * The registry is safe to use from any thread, and checking an empty registry only reads a counter.
+ * </p>
+ */
+public class OpeningRegistry {
+    // Openings keyed by their packed block position, keyed by world.
+    private final Map<UUID, Map<Long, ChestOpening>> _positions = new ConcurrentHashMap<>();
+
+    // Players currently unlocking a chest.
+    private final Set<UUID> _players = ConcurrentHashMap.newKeySet();
+
+    // Number of registered openings.
+    private final AtomicInteger _size = new AtomicInteger();
+
+    /**
+     * Checks if there are no openings in progress.
+     *
+     * @return True if the registry is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return _size.get() == 0;
+    }
+
+    /**
+     * Checks if a player is unlocking a chest.
+     *
+     * @param playerId The UUID of the player.
+     * @return True if the player is unlocking a chest, false otherwise.
+     */
+    public boolean isUnlocking(UUID playerId) {
+        return !isEmpty() && _players.contains(playerId);
+    }
+
+    /**
+     * Checks if a block is occupied by a chest under unlocking.
+     *
+     * @param block The block to check.
+     * @return True if the block is occupied, false otherwise.
+     */
+    public boolean isOccupied(Block block) {
+        if (isEmpty())
+            return false;
+
+        return isOccupied(block.getWorld().getUID(), Block.getBlockKey(block.getX(), block.getY(), block.getZ()));
+    }
+
+    /**
+     * Checks if a location is occupied by a chest under unlocking.
+     *
+     * @param location The location to check.
+     * @return True if the location is occupied, false otherwise.
+     */
+    public boolean isOccupied(Location location) {
+        if (isEmpty() || location.getWorld() == null)
+            return false;
+
+        return isOccupied(location.getWorld().getUID(), pack(location));
+    }
+
+    /**
+     * Checks if a packed position is occupied in a world.
+     *
+     * @param worldId The UUID of the world.
+     * @param key     The packed block position.
+     * @return True if the position is occupied, false otherwise.
+     */
+    private boolean isOccupied(UUID worldId, long key) {
+        return getOpening(worldId, key) != null;
+    }
+
+    /**
+     * Gets the opening whose chest occupies a block.
+     *
+     * @param block The block to check.
+     * @return The opening, or null if the block is not occupied.
+     */
+    public @Nullable ChestOpening getOpening(Block block) {
+        if (isEmpty())
+            return null;
+
+        return getOpening(block.getWorld().getUID(), Block.getBlockKey(block.getX(), block.getY(), block.getZ()));
+    }
+
+    /**
+     * Gets the opening at a packed position in a world.
+     *
+     * @param worldId The UUID of the world.
+     * @param key     The packed block position.
+     * @return The opening, or null if the position is not occupied.
+     */
+    private @Nullable ChestOpening getOpening(UUID worldId, long key) {
+        Map<Long, ChestOpening> positions = _positions.get(worldId);
+        return positions == null ? null : positions.get(key);
+    }
+
+    /**
+     * Registers an opening, unless the player is already unlocking a chest or the location is occupied.
+     *
+     * @param opening The opening to register.
+     * @return True if the opening was registered, false otherwise.
+     */
+    public boolean register(ChestOpening opening) {
+        UUID playerId = opening.getPlayer().getUniqueId();
+        Location location = opening.getLocation();
+        if (location.getWorld() == null || !_players.add(playerId))
+            return false;
+
+        Map<Long, ChestOpening> positions = _positions.computeIfAbsent(location.getWorld().getUID(), id -> new ConcurrentHashMap<>());
+        if (positions.putIfAbsent(pack(location), opening) != null) {
+            _players.remove(playerId);
+            return false;
+        }
+
+        _size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes an opening. Does nothing if the opening is not registered.
+     *
+     * @param opening The opening to remove.
+     */
+    public void unregister(ChestOpening opening) {
+        Location location = opening.getLocation();
+        if (location.getWorld() == null)
+            return;
+
+        Map<Long, ChestOpening> positions = _positions.get(location.getWorld().getUID());
+        if (positions == null || !positions.remove(pack(location), opening))
+            return;
+
+        _players.remove(opening.getPlayer().getUniqueId());
+        _size.decrementAndGet();
+    }
+
+    /**
+     * Removes every opening.
+     */
+    public void clear() {
+        _positions.clear();
+        _players.clear();
+        _size.set(0);
+    }
+
+    /**
+     * Packs the block coordinates of a location into a single long.
+     *
+     * @param location The location to pack.
+     * @return The packed block position.
+     */
+    private static long pack(Location location) {
+        return Block.getBlockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+}
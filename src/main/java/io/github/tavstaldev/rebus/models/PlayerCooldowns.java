@@ -0,0 +1,100 @@
+package io.github.tavstaldev.rebus.models;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the cooldowns of a single player for the configured storage context.
+ * <p>
+ * Expiry times are stored as epoch milliseconds, indexed by cooldown type and chest key.
+ * The holder is safe to read and modify from any thread, and looking up a cooldown allocates nothing.
+ * </p>
+ */
+public class PlayerCooldowns {
+    // Expiry times in epoch milliseconds, keyed by chest, for each cooldown type.
+    // The EnumMap itself is never modified after construction, only the maps it holds.
+    private final Map<ECooldownType, Map<String, Long>> _expiresAt = new EnumMap<>(ECooldownType.class);
+
+    /**
+     * Constructs an empty cooldown holder.
+     */
+    public PlayerCooldowns() {
+        for (ECooldownType type : ECooldownType.values()) {
+            _expiresAt.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Gets the expiry time of a cooldown.
+     *
+     * @param type     The type of the cooldown.
+     * @param chestKey The key of the chest.
+     * @return The expiry time in epoch milliseconds, or 0 if there is no cooldown.
+     */
+    public long getExpiresAt(ECooldownType type, String chestKey) {
+        Long expiresAt = _expiresAt.get(type).get(chestKey);
+        return expiresAt == null ? 0L : expiresAt;
+    }
+
+    /**
+     * Gets the remaining time of a cooldown.
+     *
+     * @param type     The type of the cooldown.
+     * @param chestKey The key of the chest.
+     * @param now      The current time in epoch milliseconds.
+     * @return The remaining time in seconds, or 0 if there is no cooldown or it has expired.
+     */
+    public long getRemainingSeconds(ECooldownType type, String chestKey, long now) {
+        long remaining = getExpiresAt(type, chestKey) - now;
+        return remaining > 0 ? remaining / 1000L : 0L;
+    }
+
+    /**
+     * Sets the expiry time of a cooldown, replacing any previous value.
+     *
+     * @param type      The type of the cooldown.
+     * @param chestKey  The key of the chest.
+     * @param expiresAt The expiry time in epoch milliseconds.
+     */
+    public void set(ECooldownType type, String chestKey, long expiresAt) {
+        _expiresAt.get(type).put(chestKey, expiresAt);
+    }
+
+    /**
+     * Removes a cooldown.
+     *
+     * @param type     The type of the cooldown.
+     * @param chestKey The key of the chest.
+     */
+    public void remove(ECooldownType type, String chestKey) {
+        _expiresAt.get(type).remove(chestKey);
+    }
+
+    /**
+     * Removes every cooldown.
+     */
+    public void clear() {
+        for (Map<String, Long> expiries : _expiresAt.values()) {
+            expiries.clear();
+        }
+    }
+
+    /**
+     * Creates a snapshot of the cooldowns as Cooldown objects.
+     *
+     * @param context The storage context the cooldowns belong to.
+     * @return A new set of Cooldown objects.
+     */
+    public Set<Cooldown> toCooldowns(String context) {
+        Set<Cooldown> cooldowns = new HashSet<>();
+        for (var typeEntry : _expiresAt.entrySet()) {
+            for (var entry : typeEntry.getValue().entrySet()) {
+                cooldowns.add(new Cooldown(context, typeEntry.getKey(), entry.getKey(), entry.getValue()));
+            }
+        }
+        return cooldowns;
+    }
+}
@@ -4,8 +4,13 @@ import io.github.tavstaldev.minecorelib.utils.ChatUtils;
 import io.github.tavstaldev.minecorelib.utils.TypeUtils;
 import io.github.tavstaldev.rebus.Rebus;
 import io.github.tavstaldev.rebus.util.IconUtils;
+import io.github.tavstaldev.rebus.util.SoundUtils;
+import net.kyori.adventure.sound.Sound;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Particle;
+import org.bukkit.Registry;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -49,27 +54,34 @@ public class RebusChest {
     private final int slot;
 
     // Particle effect associated with the chest
-    private final String particle;
+    private final Particle particle;
 
     // Number of particles to display
     private final int particleCount;
 
-    // Sound played when the chest is opened
-    private final String openSound;
+    // Sound played when the chest is opened, null for no sound
+    private final @Nullable Sound openSound;
 
-    // Sound played when the chest is closed
-    private final String closeSound;
+    // Sound played when the chest is closed, null for no sound
+    private final @Nullable Sound closeSound;
 
-    // Sound played when the chest is completed
-    private final String completionSound;
+    // Sound played when the chest is completed, null for no sound
+    private final @Nullable Sound completionSound;
 
     // Indicates if the chest is a high-tier chest
     private final boolean isHighTier;
 
-    // Set of rewards associated with the chest
-    private final Set<Reward> rewards;
+    // Rewards associated with the chest, in the order they are defined in
+    private final List<Reward> rewards;
 
-    private final Set<ItemStack> itemCache = new HashSet<>();
+    // Alias table used to draw the rewards
+    private final RewardTable rewardTable;
+
+    // Odds of the rewards and their items
+    private final ChestOdds odds;
+
+    // Every item the rewards can give, in the order their rewards are defined in
+    private final Set<ItemStack> possibleItems;
 
     /**
      * Constructs a RebusChest instance with the specified properties.
@@ -84,13 +96,13 @@ public class RebusChest {
      * @param slot            Slot position of the chest in a GUI.
      * @param particle        Particle effect associated with the chest.
      * @param particleCount   Number of particles to display.
-     * @param openSound       Sound played when the chest is opened.
-     * @param closeSound      Sound played when the chest is closed.
-     * @param completionSound Sound played when the chest is completed.
+     * @param openSound       Sound played when the chest is opened, null for no sound.
+     * @param closeSound      Sound played when the chest is closed, null for no sound.
+     * @param completionSound Sound played when the chest is completed, null for no sound.
      * @param isHighTier      Indicates if the chest is a high-tier chest.
-     * @param rewards         Set of rewards associated with the chest.
+     * @param rewards         Rewards associated with the chest, in the order they are defined in.
      */
-    public RebusChest(String key, String name, List<String> description, Material material, double cost, long cooldown, long buyCooldown, String permission, int slot, String particle, int particleCount, String openSound, String closeSound, String completionSound, boolean isHighTier, Set<Reward> rewards) {
+    public RebusChest(String key, String name, List<String> description, Material material, double cost, long cooldown, long buyCooldown, String permission, int slot, Particle particle, int particleCount, @Nullable Sound openSound, @Nullable Sound closeSound, @Nullable Sound completionSound, boolean isHighTier, List<Reward> rewards) {
         this.key = key;
         this.name = name;
         this.description = description;
@@ -106,7 +118,15 @@ public class RebusChest {
         this.closeSound = closeSound;
         this.completionSound = completionSound;
         this.isHighTier = isHighTier;
-        this.rewards = rewards;
+        this.rewards = List.copyOf(rewards);
+        this.rewardTable = new RewardTable(this.rewards);
+        this.odds = new ChestOdds(this.rewardTable);
+
+        Set<ItemStack> items = new LinkedHashSet<>();
+        for (Reward reward : this.rewards) {
+            items.addAll(reward.getItemStacks());
+        }
+        this.possibleItems = Collections.unmodifiableSet(items);
     }
 
     /**
@@ -136,86 +156,158 @@ public class RebusChest {
      * @param player The player to reward.
      */
     public void reward(Player player) {
-        // Check if there are no rewards available and notify the player.
-        if (rewards.isEmpty()) {
+        // Draw the reward the player receives, and notify the player if there are no rewards available.
+        Reward reward = rewardTable.sample();
+        if (reward == null) {
             Rebus.Instance.sendLocalizedMsg(player, "Chests.NoRewards");
             return;
         }
 
-        // Calculate the total chance of all rewards.
-        int totalChance = rewards.stream().mapToInt(Reward::getChance).sum();
-        // Generate a random value within the total chance range.
-        int randomValue = (int) (Math.random() * totalChance);
-        int cumulativeChance = 0;
-
-        // Iterate through the rewards to determine which reward the player receives.
-        for (Reward reward : rewards) {
-            cumulativeChance += reward.getChance();
-            if (randomValue < cumulativeChance) {
-                boolean inventoryFullMessageSent = false;
-                var location = player.getLocation();
-
-                // Iterate through the items in the reward.
-                for (ItemStack item : reward.getItemStacks()) {
-                    ItemStack cloneItem = item.clone();
-
-                    // Handle items with a maximum stack size of 1.
-                    if (cloneItem.getMaxStackSize() == 1 && cloneItem.getAmount() > 0) {
-                        cloneItem.setAmount(1);
-                        for (int i = 0; i < cloneItem.getAmount(); i++) {
-                            // Drop the item if the player's inventory is full.
-                            if (player.getInventory().firstEmpty() == -1) {
-                                location.getWorld().dropItemNaturally(location, cloneItem);
-                                if (!inventoryFullMessageSent) {
-                                    Rebus.Instance.sendLocalizedMsg(player, "Chests.InventoryFull");
-                                    inventoryFullMessageSent = true;
-                                }
-                                continue;
-                            }
-                            // Add the item to the player's inventory.
-                            player.getInventory().addItem(cloneItem);
-                        }
-                    } else {
-                        var remainder = player.getInventory().addItem(cloneItem);
-
-                        // Check if there are any remaining items.
-                        if (!remainder.isEmpty()) {
-                            // Drop all remaining items on the ground.
-                            for (ItemStack remainingItem : remainder.values()) {
-                                location.getWorld().dropItemNaturally(location, remainingItem);
-                            }
-
-                            // Send the inventory full message only once.
-                            if (!inventoryFullMessageSent) {
-                                Rebus.Instance.sendLocalizedMsg(player, "Chests.InventoryFull");
-                                inventoryFullMessageSent = true;
-                            }
+        boolean inventoryFullMessageSent = false;
+        var location = player.getLocation();
+
+        // Iterate through the items in the reward.
+        for (ItemStack item : reward.getItemStacks()) {
+            ItemStack cloneItem = item.clone();
+
+            // Handle items with a maximum stack size of 1.
+            if (cloneItem.getMaxStackSize() == 1 && cloneItem.getAmount() > 0) {
+                cloneItem.setAmount(1);
+                for (int i = 0; i < cloneItem.getAmount(); i++) {
+                    // Drop the item if the player's inventory is full.
+                    if (player.getInventory().firstEmpty() == -1) {
+                        location.getWorld().dropItemNaturally(location, cloneItem);
+                        if (!inventoryFullMessageSent) {
+                            Rebus.Instance.sendLocalizedMsg(player, "Chests.InventoryFull");
+                            inventoryFullMessageSent = true;
                         }
+                        continue;
                     }
+                    // Add the item to the player's inventory.
+                    player.getInventory().addItem(cloneItem);
                 }
+            } else {
+                var remainder = player.getInventory().addItem(cloneItem);
+
+                // Check if there are any remaining items.
+                if (!remainder.isEmpty()) {
+                    // Drop all remaining items on the ground.
+                    for (ItemStack remainingItem : remainder.values()) {
+                        location.getWorld().dropItemNaturally(location, remainingItem);
+                    }
 
-                // Add a cooldown for the chest to the player's cache and database.
-                Rebus.database().addCooldown(player.getUniqueId(), ECooldownType.OPEN, key, cooldown);
+                    // Send the inventory full message only once.
+                    if (!inventoryFullMessageSent) {
+                        Rebus.Instance.sendLocalizedMsg(player, "Chests.InventoryFull");
+                        inventoryFullMessageSent = true;
+                    }
+                }
+            }
+        }
+
+        // Add a cooldown for the chest to the player's cache and database.
+        Rebus.database().addCooldownAsync(player.getUniqueId(), ECooldownType.OPEN, key, cooldown);
+
+        // Notify the player that they have received a reward.
+        Rebus.Instance.sendLocalizedMsg(player, "Chests.RewardReceived", Map.of("chest_name", getName()));
+    }
 
-                // Notify the player that they have received a reward.
-                Rebus.Instance.sendLocalizedMsg(player, "Chests.RewardReceived", Map.of("chest_name", getName()));
-                return;
+
+    /**
+     * Rewards a player with several rolls of the chest at once.
+     * The items of every roll are merged before they are added to the inventory,
+     * and a single cooldown is written for the whole batch.
+     *
+     * @param player The player to reward.
+     * @param amount The number of chests being opened.
+     */
+    public void rewardBulk(Player player, int amount) {
+        // Check if there are no rewards available and notify the player.
+        if (rewardTable.isEmpty()) {
+            Rebus.Instance.sendLocalizedMsg(player, "Chests.NoRewards");
+            return;
+        }
+
+        // Roll every chest first, then insert the merged stacks in one go.
+        giveItems(player, rollRewards(amount));
+
+        // Add a cooldown for the chest to the player's cache and database.
+        Rebus.database().addCooldownAsync(player.getUniqueId(), ECooldownType.OPEN, key, cooldown);
+
+        // Notify the player that they have received the rewards.
+        Rebus.Instance.sendLocalizedMsg(player, "Chests.BulkRewardReceived", Map.of(
+                "chest_name", getName(),
+                "amount", amount
+        ));
+    }
+
+    /**
+     * Draws several rewards and merges their items into as few stacks as possible.
+     *
+     * @param amount The number of rewards to draw.
+     * @return The merged item stacks, none of them larger than the maximum stack size of its item.
+     */
+    public List<ItemStack> rollRewards(int amount) {
+        // Count the items by their single-item form, so similar items end up in the same entry.
+        Map<ItemStack, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < amount; i++) {
+            Reward reward = rewardTable.sample();
+            if (reward == null)
+                break;
+
+            for (ItemStack item : reward.getItemStacks()) {
+                if (item.getAmount() <= 0)
+                    continue;
+                counts.merge(item.asOne(), item.getAmount(), Integer::sum);
             }
         }
 
-        // Notify the player if no rewards were received.
-        Rebus.Instance.sendLocalizedMsg(player, "Chests.NoRewards");
+        // Split the merged counts into valid stacks.
+        List<ItemStack> stacks = new ArrayList<>();
+        for (var entry : counts.entrySet()) {
+            ItemStack item = entry.getKey();
+            int maxStackSize = Math.max(1, item.getMaxStackSize());
+            int remaining = entry.getValue();
+            while (remaining > 0) {
+                int stackSize = Math.min(remaining, maxStackSize);
+                stacks.add(item.asQuantity(stackSize));
+                remaining -= stackSize;
+            }
+        }
+        return stacks;
     }
 
+    /**
+     * Adds items to the inventory of a player, dropping whatever does not fit.
+     *
+     * @param player The player receiving the items.
+     * @param items  The items to add.
+     */
+    private void giveItems(Player player, List<ItemStack> items) {
+        if (items.isEmpty())
+            return;
+
+        var remainder = player.getInventory().addItem(items.toArray(new ItemStack[0]));
+        if (remainder.isEmpty())
+            return;
+
+        // Drop all remaining items on the ground and notify the player once.
+        var location = player.getLocation();
+        for (ItemStack remainingItem : remainder.values()) {
+            location.getWorld().dropItemNaturally(location, remainingItem);
+        }
+        Rebus.Instance.sendLocalizedMsg(player, "Chests.InventoryFull");
+    }
 
     /**
      * Creates a RebusChest instance from a configuration map.
      *
-     * @param key    The unique key of the chest.
-     * @param values The configuration section containing chest properties.
+     * @param key       The unique key of the chest.
+     * @param values    The configuration section containing chest properties.
+     * @param itemTable The loaded items, keyed by their ID, used to resolve the items of the rewards.
      * @return A RebusChest instance or null if the configuration is invalid.
      */
-    public static @Nullable RebusChest fromMap(String key, ConfigurationSection values) {
+    public static @Nullable RebusChest fromMap(String key, ConfigurationSection values, Map<Integer, ItemStack> itemTable) {
         //#region Retrieve properties from configuration
         // Retrieve the name of the chest from the configuration.
         String name = values.getString("name");
@@ -241,23 +333,23 @@ public class RebusChest {
         int slot = values.getInt("slot", 0);
 
         // Retrieve the particle effect associated with the chest, defaulting to "ENCHANT".
-        String particle = values.getString("particle", "ENCHANT");
+        Particle particle = resolveParticle(key, values.getString("particle", "ENCHANT"));
         // Retrieve the number of particles to display, defaulting to 30.
         int particleCount = values.getInt("particleCount", 30);
 
         // Retrieve the sound played when the chest is opened, defaulting to "BLOCK_CHEST_OPEN".
-        String openSound = values.getString("openSound", "BLOCK_CHEST_OPEN");
+        Sound openSound = resolveSound(key, "openSound", values.getString("openSound", "BLOCK_CHEST_OPEN"));
         // Retrieve the sound played when the chest is closed, defaulting to "BLOCK_CHEST_CLOSE".
-        String closeSound = values.getString("closeSound", "BLOCK_CHEST_CLOSE");
+        Sound closeSound = resolveSound(key, "closeSound", values.getString("closeSound", "BLOCK_CHEST_CLOSE"));
         // Retrieve the sound played when the chest is completed, defaulting to "ENTITY_PLAYER_LEVELUP".
-        String completionSound = values.getString("completionSound", "ENTITY_PLAYER_LEVELUP");
+        Sound completionSound = resolveSound(key, "completionSound", values.getString("completionSound", "ENTITY_PLAYER_LEVELUP"));
 
         // Check if the chest is marked as high-tier, defaulting to false.
         boolean isHighTier = values.getBoolean("isHighTier", false);
         //#endregion
 
-        // Initialize a set to hold the rewards associated with the chest.
-        Set<Reward> rewards = new HashSet<>();
+        // Initialize a list to hold the rewards associated with the chest, keeping their order in the file.
+        List<Reward> rewards = new ArrayList<>();
         // Construct the file path for the reward file based on the chest key.
         File rewardFile = Paths.get(Rebus.Instance.getDataFolder().getPath(), "chests", key + ".yml").toFile();
         // Check if the reward file exists; if not, log a warning and return null.
@@ -296,11 +388,11 @@ public class RebusChest {
                 // Retrieve the list of item IDs associated with the reward.
                 List<Integer> itemsRaw = TypeUtils.castAsList(dataEntry.get("items"), Rebus.logger());
                 if (itemsRaw == null) return null;
-                // Convert the list of item IDs to a set.
-                Set<Integer> items = new HashSet<>(itemsRaw);
+                // Convert the list of item IDs to a set, keeping their order in the file.
+                Set<Integer> items = new LinkedHashSet<>(itemsRaw);
 
-                // Add the reward to the set of rewards.
-                rewards.add(new Reward(chance, items));
+                // Add the reward to the list of rewards.
+                rewards.add(new Reward(chance, items, itemTable));
             }
         } catch (Exception ex) {
             // Log any exceptions that occur while loading the reward file.
@@ -313,6 +405,52 @@ public class RebusChest {
         return new RebusChest(key, name, description, material, cost, cooldown, buyCooldown, permission, slot, particle, particleCount, openSound, closeSound, completionSound, isHighTier, rewards);
     }
 
+    /**
+     * Resolves the particle of a chest, reporting invalid names once while the chest is loaded.
+     *
+     * @param key  The key of the chest, used in the warning.
+     * @param name The name of the particle.
+     * @return The particle, or ENCHANT if the name is invalid.
+     */
+    private static Particle resolveParticle(String key, String name) {
+        Particle particle = null;
+        try {
+            particle = Registry.PARTICLE_TYPE.get(NamespacedKey.minecraft(name.toLowerCase(Locale.ROOT)));
+        } catch (Exception ignored) {}
+
+        if (particle == null) {
+            Rebus.logger().warn(String.format("Invalid particle '%s' for chest '%s', using ENCHANT instead.", name, key));
+            return Particle.ENCHANT;
+        }
+
+        // Particles that need extra data, like dust colors, cannot be configured with a name alone.
+        if (particle.getDataType() != Void.class) {
+            Rebus.logger().warn(String.format("Particle '%s' of chest '%s' requires extra data, using ENCHANT instead.", name, key));
+            return Particle.ENCHANT;
+        }
+        return particle;
+    }
+
+    /**
+     * Resolves a sound of a chest, reporting invalid names once while the chest is loaded.
+     *
+     * @param key   The key of the chest, used in the warning.
+     * @param field The name of the configuration field, used in the warning.
+     * @param name  The name of the sound, or "none" for no sound.
+     * @return The sound, or null if the chest has no such sound or the name is invalid.
+     */
+    private static @Nullable Sound resolveSound(String key, String field, String name) {
+        if (name == null || name.isEmpty() || "none".equalsIgnoreCase(name))
+            return null;
+
+        var sound = SoundUtils.getSound(name);
+        if (sound.isEmpty()) {
+            Rebus.logger().warn(String.format("Invalid %s '%s' for chest '%s', the sound will not be played.", field, name, key));
+            return null;
+        }
+        return sound.get();
+    }
+
     //#region Getters
     /**
      * Gets the unique key of the chest.
@@ -398,36 +536,46 @@ public class RebusChest {
     /**
      * Gets the rewards associated with the chest.
      *
-     * @return A set of rewards.
+     * @return An unmodifiable list of rewards, in the order they are defined in.
      */
-    public Set<Reward> getRewards() {
+    public List<Reward> getRewards() {
         return rewards;
     }
 
+    /**
+     * Gets the alias table used to draw the rewards of the chest.
+     *
+     * @return The reward table.
+     */
+    public RewardTable getRewardTable() {
+        return rewardTable;
+    }
+
+    /**
+     * Gets the odds of the rewards and items of the chest.
+     *
+     * @return The odds, computed when the chest was loaded.
+     */
+    public ChestOdds getOdds() {
+        return odds;
+    }
+
     /**
      * Retrieves all possible items from the rewards associated with the chest.
      * This method is intended for previewing items in the GUI and should not be used for rewarding players.
      *
-     * @return A set of ItemStack objects representing all possible items from the chest's rewards.
+     * @return A set of ItemStack objects representing all possible items from the chest's rewards, in the order their rewards are defined in.
      */
     public Set<ItemStack> getPossibleItems() {
-        if (!itemCache.isEmpty())
-            return itemCache;
-
-        Set<ItemStack> items = new HashSet<>();
-        for (Reward reward : rewards) {
-            items.addAll(reward.getItemStacks());
-        }
-        itemCache.addAll(items);
-        return items;
+        return possibleItems;
     }
 
     /**
      * Gets the particle effect associated with the chest.
      *
-     * @return The particle effect name.
+     * @return The particle effect.
      */
-    public String getParticle() {
+    public Particle getParticle() {
         return particle;
     }
 
@@ -443,27 +591,27 @@ public class RebusChest {
     /**
      * Gets the sound played when the chest is opened.
      *
-     * @return The open sound name.
+     * @return The open sound, or null if the chest has no open sound.
      */
-    public String getOpenSound() {
+    public @Nullable Sound getOpenSound() {
         return openSound;
     }
 
     /**
      * Gets the sound played when the chest is closed.
      *
-     * @return The close sound name.
+     * @return The close sound, or null if the chest has no close sound.
      */
-    public String getCloseSound() {
+    public @Nullable Sound getCloseSound() {
         return closeSound;
     }
 
     /**
      * Gets the sound played when the chest is completed.
      *
-     * @return The completion sound name.
+     * @return The completion sound, or null if the chest has no completion sound.
      */
-    public String getCompletionSound() {
+    public @Nullable Sound getCompletionSound() {
         return completionSound;
     }
 
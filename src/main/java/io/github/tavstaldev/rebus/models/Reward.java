@@ -1,9 +1,10 @@
 package io.github.tavstaldev.rebus.models;
 
-import io.github.tavstaldev.rebus.Rebus;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -16,18 +17,29 @@ public class Reward {
     // The set of item IDs associated with this reward.
     private final Set<Integer> items;
 
-    // Cached set of ItemStacks corresponding to the item IDs.
-    private Set<ItemStack> _stackCache;
+    // The ItemStacks of the item IDs, resolved when the reward is loaded.
+    private final Set<ItemStack> itemStacks;
 
     /**
-     * Constructs a Reward instance.
+     * Constructs a Reward instance, resolving its items from the item table.
+     * Item IDs missing from the table are left out.
      *
-     * @param chance The chance of obtaining this reward.
-     * @param items  The set of item IDs associated with this reward.
+     * @param chance    The chance of obtaining this reward.
+     * @param items     The set of item IDs associated with this reward.
+     * @param itemTable The loaded items, keyed by their ID.
      */
-    public Reward(int chance, Set<Integer> items) {
+    public Reward(int chance, Set<Integer> items, Map<Integer, ItemStack> itemTable) {
         this.chance = chance;
-        this.items = items;
+        this.items = Collections.unmodifiableSet(new LinkedHashSet<>(items));
+
+        Set<ItemStack> itemStacks = new LinkedHashSet<>();
+        for (Integer itemId : items) {
+            ItemStack itemStack = itemTable.get(itemId);
+            if (itemStack != null) {
+                itemStacks.add(itemStack);
+            }
+        }
+        this.itemStacks = Collections.unmodifiableSet(itemStacks);
     }
 
     /**
@@ -41,24 +53,10 @@ public class Reward {
 
     /**
      * Gets the set of ItemStacks corresponding to the item IDs.
-     * If the cache is available, it returns the cached ItemStacks.
-     * Otherwise, it retrieves the ItemStacks from the ChestManager and caches them.
      *
-     * @return A set of ItemStacks.
+     * @return An unmodifiable set of ItemStacks, in the order the item IDs are defined in.
      */
     public Set<ItemStack> getItemStacks() {
-        if (_stackCache != null && !_stackCache.isEmpty())
-            return Collections.unmodifiableSet(_stackCache);
-
-        Set<ItemStack> itemStacks = new java.util.HashSet<>();
-        var itemsTable = Rebus.chestManager().getItemTable();
-        for (Integer itemId : items) {
-            ItemStack itemStack = itemsTable.get(itemId);
-            if (itemStack != null) {
-                itemStacks.add(itemStack);
-            }
-        }
-        _stackCache = itemStacks;
-        return Collections.unmodifiableSet(itemStacks);
+        return itemStacks;
     }
-}
\ No newline at end of file
+}
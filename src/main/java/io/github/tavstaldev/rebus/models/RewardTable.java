@@ -0,0 +1,146 @@
+package io.github.tavstaldev.rebus.models;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * An immutable table for drawing weighted rewards in constant time.
+ * <p>
+ * The table is built once with Vose's alias method. A draw picks a column uniformly and then either keeps it
+ * or takes its alias, so rolling a chest with hundreds of rewards costs the same as rolling one with a few.
+ * Rewards keep the order they were defined in, so the same random values always produce the same rewards.
+ * </p>
+ */
+public final class RewardTable {
+    // Rewards that can be drawn, in the order they were defined in.
+    private final List<Reward> _rewards;
+
+    // Probability of keeping each column instead of taking its alias.
+    private final double[] _probabilities;
+
+    // Index of the reward taken when a column is not kept.
+    private final int[] _aliases;
+
+    // Sum of the chances of every reward.
+    private final long _totalChance;
+
+    /**
+     * Builds the table from a list of rewards. Rewards without a positive chance are left out.
+     *
+     * @param rewards The rewards, in the order they were defined in.
+     */
+    public RewardTable(List<Reward> rewards) {
+        List<Reward> weighted = new ArrayList<>(rewards.size());
+        long totalChance = 0;
+        for (Reward reward : rewards) {
+            if (reward.getChance() <= 0)
+                continue;
+            weighted.add(reward);
+            totalChance += reward.getChance();
+        }
+
+        int size = weighted.size();
+        _rewards = List.copyOf(weighted);
+        _totalChance = totalChance;
+        _probabilities = new double[size];
+        _aliases = new int[size];
+        if (size == 0)
+            return;
+
+        // Scale the chances, so the average column holds exactly 1.
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (double) weighted.get(i).getChance() * size / totalChance;
+            if (scaled[i] < 1.0)
+                small[smallCount++] = i;
+            else
+                large[largeCount++] = i;
+        }
+
+        // Fill every column that is too small with the excess of a column that is too large.
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            _probabilities[less] = scaled[less];
+            _aliases[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0)
+                small[smallCount++] = more;
+            else
+                large[largeCount++] = more;
+        }
+
+        // The remaining columns are full, apart from rounding errors.
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            _probabilities[index] = 1.0;
+            _aliases[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            _probabilities[index] = 1.0;
+            _aliases[index] = index;
+        }
+    }
+
+    /**
+     * Draws a reward using the random generator of the current thread.
+     *
+     * @return The drawn reward, or null if the table is empty.
+     */
+    public @Nullable Reward sample() {
+        return sample(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Draws a reward using the given random generator.
+     * Passing a seeded generator makes the draws reproducible.
+     *
+     * @param random The random generator to use.
+     * @return The drawn reward, or null if the table is empty.
+     */
+    public @Nullable Reward sample(RandomGenerator random) {
+        if (_rewards.isEmpty())
+            return null;
+
+        int column = random.nextInt(_rewards.size());
+        if (random.nextDouble() < _probabilities[column])
+            return _rewards.get(column);
+        return _rewards.get(_aliases[column]);
+    }
+
+    /**
+     * Gets the rewards that can be drawn.
+     *
+     * @return An unmodifiable list of rewards, in the order they were defined in.
+     */
+    public List<Reward> getRewards() {
+        return _rewards;
+    }
+
+    /**
+     * Gets the sum of the chances of every reward.
+     *
+     * @return The total chance.
+     */
+    public long getTotalChance() {
+        return _totalChance;
+    }
+
+    /**
+     * Checks if the table has no rewards to draw.
+     *
+     * @return True if the table is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return _rewards.isEmpty();
+    }
+}
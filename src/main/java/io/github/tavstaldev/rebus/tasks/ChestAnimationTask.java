@@ -0,0 +1,19 @@
+package io.github.tavstaldev.rebus.tasks;
+
+import io.github.tavstaldev.rebus.Rebus;
+import org.bukkit.scheduler.BukkitRunnable;
+
+/**
+ * A task that advances every active chest opening by one tick.
+ * A single instance runs while there are openings in progress, instead of a chain of tasks per opening.
+ */
+public class ChestAnimationTask extends BukkitRunnable {
+
+    /**
+     * The main logic of the task, executed every tick.
+     */
+    @Override
+    public void run() {
+        Rebus.chestManager().tickOpenings();
+    }
+}
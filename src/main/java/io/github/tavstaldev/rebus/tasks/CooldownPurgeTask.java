@@ -0,0 +1,68 @@
+package io.github.tavstaldev.rebus.tasks;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.rebus.Rebus;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A task that periodically deletes expired cooldowns from the database.
+ * Rows are deleted in chunks of a configured size, each chunk being a separate task on the database thread,
+ * so player lookups queued in the meantime are not held up by a large purge.
+ */
+public class CooldownPurgeTask extends BukkitRunnable {
+    private final PluginLogger _logger = Rebus.logger().withModule(CooldownPurgeTask.class);
+    // Set while a purge is in progress, so a slow purge is not started twice.
+    private final AtomicBoolean _running = new AtomicBoolean(false);
+    private final int _batchSize;
+
+    /**
+     * Constructs a new purge task.
+     *
+     * @param batchSize The maximum number of rows deleted by a single statement.
+     */
+    public CooldownPurgeTask(int batchSize) {
+        _batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * The main logic of the task, executed when the task runs.
+     * It starts purging expired cooldowns unless the previous purge is still in progress.
+     */
+    @Override
+    public void run() {
+        if (!_running.compareAndSet(false, true))
+            return;
+
+        purgeChunk(0);
+    }
+
+    /**
+     * Deletes the next chunk of expired cooldowns and schedules another one if the chunk was full.
+     *
+     * @param removed The number of rows deleted by the previous chunks.
+     */
+    private void purgeChunk(int removed) {
+        Rebus.database().purgeExpiredCooldownsAsync(_batchSize).whenComplete((deleted, throwable) -> {
+            if (throwable != null) {
+                _logger.error(String.format("Unknown error happened while purging expired cooldowns...\n%s", throwable.getMessage()));
+                _running.set(false);
+                return;
+            }
+
+            int total = removed + deleted;
+            // A full chunk means there may be more expired rows left.
+            if (deleted >= _batchSize && !isCancelled() && Rebus.Instance.isEnabled()) {
+                purgeChunk(total);
+                return;
+            }
+
+            if (total > 0)
+                _logger.info(String.format("Purged %d expired cooldown(s) from the database.", total));
+            else
+                _logger.debug("No expired cooldowns to purge.");
+            _running.set(false);
+        });
+    }
+}
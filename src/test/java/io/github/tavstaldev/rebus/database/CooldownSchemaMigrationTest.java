@@ -0,0 +1,198 @@
+package io.github.tavstaldev.rebus.database;
+
+import io.github.tavstaldev.minecorelib.core.PluginLogger;
+import io.github.tavstaldev.rebus.Rebus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the migration of legacy cooldown tables against an in-memory SQLite database.
+ */
+class CooldownSchemaMigrationTest {
+    private static final String TABLE = "rebus_cooldowns";
+    private static final String LEGACY_TABLE = TABLE + "_legacy";
+
+    // The statement SqlLiteDatabase creates the table with.
+    private static final String CREATE_SQL = "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+            "PlayerId VARCHAR(36) NOT NULL, " +
+            "Context VARCHAR(32) NOT NULL, " +
+            "Type VARCHAR(16) NOT NULL, " +
+            "Chest VARCHAR(32) NOT NULL, " +
+            "ExpiresAt BIGINT NOT NULL," +
+            "PRIMARY KEY (PlayerId, Context, Type, Chest));";
+
+    private static final String PLAYER = "00000000-0000-0000-0000-000000000001";
+
+    private Connection _connection;
+    private long _now;
+
+    @BeforeAll
+    static void setUpPlugin() {
+        // The migration logs through the plugin, so it needs an instance with a logger.
+        Rebus plugin = mock(Rebus.class);
+        when(plugin.getCustomLogger()).thenReturn(mock(PluginLogger.class, Answers.RETURNS_SELF));
+        Rebus.Instance = plugin;
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        _connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        _now = System.currentTimeMillis();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        _connection.close();
+    }
+
+    @Test
+    void migratesLegacyTable() throws SQLException {
+        createLegacyTable(TABLE);
+        long active = _now + 3_600_000;
+        insertLegacy(TABLE, "OPEN", "daily", active);
+        insertLegacy(TABLE, "OPEN", "pandora", _now - 3_600_000);
+        assertTrue(CooldownSchemaMigration.isLegacy(_connection, TABLE));
+        assertTrue(CooldownSchemaMigration.needsMigration(_connection, TABLE));
+
+        CooldownSchemaMigration.migrate(_connection, TABLE, CREATE_SQL, "INSERT OR IGNORE");
+
+        // Only the active cooldown is kept, converted to epoch milliseconds, and the backup is gone.
+        assertFalse(CooldownSchemaMigration.needsMigration(_connection, TABLE));
+        assertFalse(tableExists(LEGACY_TABLE));
+        assertEquals(Map.of("OPEN/daily", active), readCooldowns());
+        assertTrue(_connection.getAutoCommit());
+    }
+
+    @Test
+    void resumesInterruptedMigration() throws SQLException {
+        // State left by a migration interrupted after creating the new table and copying one of the cooldowns.
+        createLegacyTable(LEGACY_TABLE);
+        long copied = _now + 60_000;
+        long remaining = _now + 120_000;
+        insertLegacy(LEGACY_TABLE, "OPEN", "daily", copied);
+        insertLegacy(LEGACY_TABLE, "BUY", "daily", remaining);
+        try (Statement statement = _connection.createStatement()) {
+            statement.executeUpdate(CREATE_SQL);
+        }
+        insertCurrent("OPEN", "daily", copied);
+        assertFalse(CooldownSchemaMigration.isLegacy(_connection, TABLE));
+        assertTrue(CooldownSchemaMigration.needsMigration(_connection, TABLE));
+
+        CooldownSchemaMigration.migrate(_connection, TABLE, CREATE_SQL, "INSERT OR IGNORE");
+
+        // The copied cooldown is not duplicated, the remaining one is copied and the backup is dropped.
+        assertFalse(CooldownSchemaMigration.needsMigration(_connection, TABLE));
+        assertFalse(tableExists(LEGACY_TABLE));
+        assertEquals(Map.of("OPEN/daily", copied, "BUY/daily", remaining), readCooldowns());
+    }
+
+    @Test
+    void failedMigrationIsRolledBack() throws SQLException {
+        createLegacyTable(TABLE);
+        insertLegacy(TABLE, "OPEN", "daily", _now + 3_600_000);
+
+        assertThrows(SQLException.class, () -> CooldownSchemaMigration.migrate(_connection, TABLE, "CREATE TABLE broken (", "INSERT OR IGNORE"));
+
+        // The rename is rolled back together with the failed create, so the legacy table is left as it was.
+        assertTrue(CooldownSchemaMigration.isLegacy(_connection, TABLE));
+        assertFalse(tableExists(LEGACY_TABLE));
+        assertTrue(_connection.getAutoCommit());
+    }
+
+    @Test
+    void refusesTwoLegacyTables() throws SQLException {
+        createLegacyTable(TABLE);
+        createLegacyTable(LEGACY_TABLE);
+
+        assertThrows(SQLException.class, () -> CooldownSchemaMigration.migrate(_connection, TABLE, CREATE_SQL, "INSERT OR IGNORE"));
+        assertTrue(tableExists(TABLE));
+        assertTrue(tableExists(LEGACY_TABLE));
+    }
+
+    /**
+     * Creates a cooldown table with the schema of older versions.
+     *
+     * @param table The name of the table.
+     */
+    private void createLegacyTable(String table) throws SQLException {
+        try (Statement statement = _connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE " + table + " (" +
+                    "PlayerId VARCHAR(36) NOT NULL, " +
+                    "Context VARCHAR(32) NOT NULL, " +
+                    "Type VARCHAR(16) NOT NULL, " +
+                    "Chest VARCHAR(32) NOT NULL, " +
+                    "ExpiresAt DATETIME NOT NULL, " +
+                    "PRIMARY KEY (PlayerId, Context, Chest, Type));");
+        }
+    }
+
+    /**
+     * Inserts a cooldown into a legacy table, written as a timestamp like older versions did.
+     */
+    private void insertLegacy(String table, String type, String chest, long expiresAt) throws SQLException {
+        try (PreparedStatement statement = _connection.prepareStatement("INSERT INTO " + table + " VALUES (?, ?, ?, ?, ?);")) {
+            statement.setString(1, PLAYER);
+            statement.setString(2, "default");
+            statement.setString(3, type);
+            statement.setString(4, chest);
+            statement.setTimestamp(5, new Timestamp(expiresAt));
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Inserts a cooldown into the migrated table.
+     */
+    private void insertCurrent(String type, String chest, long expiresAt) throws SQLException {
+        try (PreparedStatement statement = _connection.prepareStatement("INSERT INTO " + TABLE + " VALUES (?, ?, ?, ?, ?);")) {
+            statement.setString(1, PLAYER);
+            statement.setString(2, "default");
+            statement.setString(3, type);
+            statement.setString(4, chest);
+            statement.setLong(5, expiresAt);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads the cooldowns of the migrated table.
+     *
+     * @return The expiry of every cooldown, keyed by its type and chest.
+     */
+    private Map<String, Long> readCooldowns() throws SQLException {
+        Map<String, Long> cooldowns = new HashMap<>();
+        try (Statement statement = _connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT Type, Chest, ExpiresAt FROM " + TABLE + ";")) {
+            while (result.next()) {
+                cooldowns.put(result.getString("Type") + "/" + result.getString("Chest"), result.getLong("ExpiresAt"));
+            }
+        }
+        return cooldowns;
+    }
+
+    /**
+     * Checks whether a table exists.
+     *
+     * @param table The name of the table.
+     * @return True if the table exists, false otherwise.
+     */
+    private boolean tableExists(String table) throws SQLException {
+        try (PreparedStatement statement = _connection.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?;")) {
+            statement.setString(1, table);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.tavstaldev.rebus.models;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the exact odds computed by {@link ChestOdds}, including items shared by several bundles.
+ */
+class ChestOddsTest {
+    // Largest allowed rounding error of an exact probability.
+    private static final double EPSILON = 1e-12;
+
+    @BeforeAll
+    static void setUp() {
+        // Item stacks need a server to be created and compared.
+        MockBukkit.mock();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void oddsAreExactForOverlappingBundles() {
+        Map<Integer, ItemStack> items = Map.of(
+                1, new ItemStack(Material.DIAMOND, 2),
+                2, new ItemStack(Material.EMERALD, 1),
+                3, new ItemStack(Material.DIAMOND, 3),
+                4, new ItemStack(Material.GOLD_INGOT, 5));
+        // Diamonds are part of two bundles, and the first bundle holds them twice in different amounts.
+        Reward first = new Reward(1, Set.of(1, 2, 3), items);
+        Reward second = new Reward(3, Set.of(1), items);
+        Reward third = new Reward(4, Set.of(4), items);
+        Reward never = new Reward(0, Set.of(2), items);
+        ChestOdds odds = new ChestOdds(new RewardTable(List.of(first, second, third, never)));
+
+        // Every bundle with a chance is listed, in the order it is defined in.
+        List<ChestOdds.BundleOdds> bundles = odds.getBundles();
+        assertEquals(3, bundles.size());
+        assertSame(first, bundles.get(0).reward());
+        assertEquals(1.0 / 8, bundles.get(0).probability(), EPSILON);
+        assertSame(second, bundles.get(1).reward());
+        assertEquals(3.0 / 8, bundles.get(1).probability(), EPSILON);
+        assertSame(third, bundles.get(2).reward());
+        assertEquals(4.0 / 8, bundles.get(2).probability(), EPSILON);
+
+        // The bundles exclude each other, so the chance of an item is the sum over the bundles containing it,
+        // counting a bundle once even if it holds the item twice.
+        ChestOdds.ItemOdds diamond = odds.getItemOdds(new ItemStack(Material.DIAMOND, 64));
+        assertNotNull(diamond);
+        assertEquals(1, diamond.item().getAmount());
+        assertEquals(1.0 / 8 + 3.0 / 8, diamond.probability(), EPSILON);
+        assertEquals(1.0 / 8 * 5 + 3.0 / 8 * 2, diamond.expectedAmount(), EPSILON);
+
+        assertEquals(1.0 / 8, odds.getProbability(new ItemStack(Material.EMERALD)), EPSILON);
+        assertEquals(4.0 / 8, odds.getProbability(new ItemStack(Material.GOLD_INGOT)), EPSILON);
+        assertEquals(4.0 / 8 * 5, Objects.requireNonNull(odds.getItemOdds(new ItemStack(Material.GOLD_INGOT))).expectedAmount(), EPSILON);
+        assertEquals(0.0, odds.getProbability(new ItemStack(Material.STONE)));
+        assertEquals(3, odds.getItems().size());
+    }
+
+    @Test
+    void itemInEveryBundleIsCertain() {
+        Map<Integer, ItemStack> items = Map.of(
+                1, new ItemStack(Material.DIAMOND),
+                2, new ItemStack(Material.EMERALD));
+        ChestOdds odds = new ChestOdds(new RewardTable(List.of(
+                new Reward(1, Set.of(1), items),
+                new Reward(2, Set.of(1, 2), items),
+                new Reward(4, Set.of(1), items))));
+
+        assertEquals(1.0, odds.getProbability(new ItemStack(Material.DIAMOND)), EPSILON);
+        assertEquals(2.0 / 7, odds.getProbability(new ItemStack(Material.EMERALD)), EPSILON);
+    }
+
+    @Test
+    void emptyTableHasNoOdds() {
+        ChestOdds odds = new ChestOdds(new RewardTable(List.of()));
+
+        assertTrue(odds.getBundles().isEmpty());
+        assertTrue(odds.getItems().isEmpty());
+        assertNull(odds.getItemOdds(new ItemStack(Material.DIAMOND)));
+    }
+}
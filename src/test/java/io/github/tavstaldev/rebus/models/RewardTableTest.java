@@ -0,0 +1,87 @@
+package io.github.tavstaldev.rebus.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the alias table built by {@link RewardTable}.
+ */
+class RewardTableTest {
+    // Number of draws used to measure the frequencies.
+    private static final int DRAWS = 1_000_000;
+
+    // Largest allowed difference between a measured frequency and its expected probability.
+    private static final double TOLERANCE = 0.002;
+
+    /**
+     * Creates a reward without items.
+     *
+     * @param chance The chance of the reward.
+     * @return The new reward.
+     */
+    private static Reward reward(int chance) {
+        return new Reward(chance, Set.of(), Map.of());
+    }
+
+    /**
+     * Draws from a table many times with a seeded generator and counts how often each reward is drawn.
+     *
+     * @param table The table to draw from.
+     * @return The number of draws per reward.
+     */
+    private static Map<Reward, Integer> count(RewardTable table) {
+        Map<Reward, Integer> counts = new IdentityHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < DRAWS; i++) {
+            counts.merge(table.sample(random), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Test
+    void samplingFrequenciesMatchWeights() {
+        List<Reward> rewards = List.of(reward(1), reward(2), reward(3), reward(4), reward(90));
+        RewardTable table = new RewardTable(rewards);
+        assertEquals(100, table.getTotalChance());
+
+        Map<Reward, Integer> counts = count(table);
+        for (Reward reward : rewards) {
+            double expected = reward.getChance() / 100.0;
+            double actual = counts.getOrDefault(reward, 0) / (double) DRAWS;
+            assertEquals(expected, actual, TOLERANCE, "frequency of the reward with chance " + reward.getChance());
+        }
+    }
+
+    @Test
+    void rewardsWithoutChanceAreNeverDrawn() {
+        Reward never = reward(0);
+        Reward negative = reward(-5);
+        Reward always = reward(7);
+        RewardTable table = new RewardTable(List.of(never, always, negative));
+
+        assertEquals(List.of(always), table.getRewards());
+        assertEquals(7, table.getTotalChance());
+        assertEquals(Map.of(always, DRAWS), count(table));
+    }
+
+    @Test
+    void emptyTableDrawsNothing() {
+        RewardTable table = new RewardTable(List.of(reward(0)));
+
+        assertTrue(table.isEmpty());
+        assertNull(table.sample(new Random(1)));
+    }
+
+    @Test
+    void seededDrawsAreReproducible() {
+        RewardTable table = new RewardTable(List.of(reward(5), reward(10), reward(85)));
+        Random first = new Random(7);
+        Random second = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            assertSame(table.sample(first), table.sample(second));
+        }
+    }
+}